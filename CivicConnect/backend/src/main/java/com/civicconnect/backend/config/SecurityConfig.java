@@ -2,6 +2,7 @@ package com.civicconnect.backend.config;
 
 import com.civicconnect.backend.security.JwtRequestFilter;
 import com.civicconnect.backend.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -42,6 +43,12 @@ public class SecurityConfig {
                         .requestMatchers(new AntPathRequestMatcher("/api/ai/**")).permitAll()
                         .requestMatchers(new AntPathRequestMatcher("/api/donations/**")).permitAll()
                         .requestMatchers(new AntPathRequestMatcher("/api/contact/**")).permitAll()
+                        // ICS feeds: calendar apps cannot send a JWT (user feeds carry a signed key)
+                        .requestMatchers(new AntPathRequestMatcher("/api/calendar/users/**")).permitAll()
+                        .requestMatchers(new AntPathRequestMatcher("/api/calendar/categories/**")).permitAll()
+
+                        // Async (CompletableFuture / SSE) re-dispatches were already authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
 
                         // Allow Pre-flight checks
                         .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
@@ -63,7 +70,8 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
 
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept", "If-None-Match", "If-Modified-Since"));
+        configuration.setExposedHeaders(Arrays.asList("ETag", "Last-Modified"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -2,8 +2,12 @@ package com.civicconnect.backend.controller;
 
 import com.civicconnect.backend.service.AiService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -13,9 +17,15 @@ public class AiController {
     private AiService aiService;
 
     // Endpoint for FEATURE 2: Admin clicks "Explain this to me"
+    // Returns a future so the servlet thread is released during the Gemini round trip
     @GetMapping("/explain/{id}")
-    public ResponseEntity<String> explainGrievance(@PathVariable Long id) {
-        String jsonExplanation = aiService.explainGrievanceForAdmin(id);
-        return ResponseEntity.ok(jsonExplanation);
+    public CompletableFuture<ResponseEntity<String>> explainGrievance(@PathVariable Long id) {
+        return aiService.explainGrievanceForAdminAsync(id).thenApply(ResponseEntity::ok);
+    }
+
+    // Streaming variant: "chunk" events as Gemini produces text, then "done" (full text) or "error"
+    @GetMapping(value = "/explain/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGrievanceExplanation(@PathVariable Long id) {
+        return aiService.streamGrievanceExplanation(id);
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,20 @@
 package com.civicconnect.backend.controller;
 
+import com.civicconnect.backend.dto.BroadcastProgressDto;
 import com.civicconnect.backend.model.Alert;
+import com.civicconnect.backend.security.CurrentUser;
 import com.civicconnect.backend.service.AlertService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/alerts")
@@ -16,13 +24,67 @@ public class AlertController {
     @Autowired
     private AlertService alertService;
 
+    @Autowired
+    private CurrentUser currentUser;
+
+    // Supports ?since=<last alert id>&limit=N and If-None-Match: unchanged feeds get a 304 without a DB read
     @GetMapping
-    public ResponseEntity<List<Alert>> getAllAlerts() {
-        return ResponseEntity.ok(alertService.getAllAlerts());
+    public ResponseEntity<List<Alert>> getAllAlerts(@RequestParam(required = false) Long since,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = "\"alerts-" + alertService.getLatestAlertId() + "-" + since + "-" + limit + "\"";
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(alertService.getAlerts(since, limit));
     }
 
+    // Live feed: "alert" events carry the new Alert as JSON
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts() {
+        return alertService.subscribe();
+    }
+
+    // POST: Create and broadcast an alert (Admin only)
     @PostMapping
-    public ResponseEntity<Alert> createAlert(@RequestBody Alert alert) {
+    public ResponseEntity<?> createAlert(@RequestBody Alert alert) {
+        if (!currentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only Admins can create alerts"));
+        }
         return ResponseEntity.ok(alertService.createAlert(alert));
     }
+
+    // Live fan-out progress (queued / sent / failed / throughput per channel) (Admin only)
+    @GetMapping("/broadcasts")
+    public ResponseEntity<?> getBroadcasts() {
+        if (!currentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only Admins can view broadcast progress"));
+        }
+        return ResponseEntity.ok(alertService.getAllBroadcastProgress());
+    }
+
+    @GetMapping("/{id}/progress")
+    public ResponseEntity<?> getBroadcastProgress(@PathVariable Long id) {
+        if (!currentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only Admins can view broadcast progress"));
+        }
+        BroadcastProgressDto progress = alertService.getBroadcastProgress(id);
+        return progress != null ? ResponseEntity.ok(progress) : ResponseEntity.notFound().build();
+    }
+
+    // Provider, sender numbers and send/failure totals (Admin only)
+    @GetMapping("/sms/stats")
+    public ResponseEntity<?> getSmsStats() {
+        if (!currentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only Admins can view SMS stats"));
+        }
+        return ResponseEntity.ok(alertService.getSmsStats());
+    }
 }
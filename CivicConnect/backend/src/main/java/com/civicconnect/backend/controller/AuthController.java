@@ -5,6 +5,7 @@ import com.civicconnect.backend.dto.RegisterDto;
 import com.civicconnect.backend.model.User;
 import com.civicconnect.backend.repository.UserRepository;
 import com.civicconnect.backend.security.JwtUtil;
+import com.civicconnect.backend.service.PhoneNumberNormalizer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -35,6 +36,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PhoneNumberNormalizer phoneNumberNormalizer;
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterDto registerDto, BindingResult bindingResult) {
         // 0. CHECK VALIDATION
@@ -64,7 +68,12 @@ public class AuthController {
             User user = new User();
             user.setUsername(registerDto.getUsername());
             user.setEmail(registerDto.getEmail());
-            user.setMobileNumber(registerDto.getMobileNumber());
+            // Stored as E.164 so SMS dispatch never has to reformat it
+            user.setMobileNumber(phoneNumberNormalizer.toE164(registerDto.getMobileNumber()));
+            user.setCity(registerDto.getCity());
+            user.setWard(registerDto.getWard());
+            user.setLatitude(registerDto.getLatitude());
+            user.setLongitude(registerDto.getLongitude());
             user.setRole("Citizen");
 
             // ENCRYPT
@@ -113,7 +122,7 @@ public class AuthController {
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginDto.getUsername(), loginDto.getPassword()));
 
-            String token = jwtUtil.generateToken(loginDto.getUsername(), dbUser.getRole());
+            String token = jwtUtil.generateToken(dbUser.getId(), dbUser.getUsername(), dbUser.getRole());
 
             System.out.println("--- DEBUG LOGIN SUCCESS ---");
             Map<String, String> response = new HashMap<>();
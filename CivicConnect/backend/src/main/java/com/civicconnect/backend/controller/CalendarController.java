@@ -0,0 +1,68 @@
+package com.civicconnect.backend.controller;
+
+import com.civicconnect.backend.model.EventCategory;
+import com.civicconnect.backend.security.CurrentUser;
+import com.civicconnect.backend.service.CalendarFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+
+// ICS feeds for calendar apps. Feed URLs are public (apps cannot send a JWT): per-user feeds
+// are protected by the signed key returned from /api/calendar/me.
+@RestController
+@RequestMapping("/api/calendar")
+@RequiredArgsConstructor
+public class CalendarController {
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar; charset=UTF-8");
+
+    private final CalendarFeedService calendarFeedService;
+    private final CurrentUser currentUser;
+
+    // GET: Subscription URL for the logged-in user's feed
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyFeedUrl() {
+        Long userId = currentUser.getId();
+        return ResponseEntity.ok(Map.of(
+            "url", "/api/calendar/users/" + userId + ".ics?key=" + calendarFeedService.feedKey(userId)
+        ));
+    }
+
+    @GetMapping("/users/{userId}.ics")
+    public ResponseEntity<?> getUserFeed(@PathVariable Long userId, @RequestParam String key, WebRequest request) {
+        if (!calendarFeedService.isValidFeedKey(userId, key)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return respond(calendarFeedService.getUserFeed(userId), request);
+    }
+
+    @GetMapping("/categories/{category}.ics")
+    public ResponseEntity<?> getCategoryFeed(@PathVariable String category, WebRequest request) {
+        EventCategory eventCategory;
+        try {
+            eventCategory = EventCategory.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid category"));
+        }
+        return respond(calendarFeedService.getCategoryFeed(eventCategory), request);
+    }
+
+    // checkNotModified handles both If-None-Match and If-Modified-Since and sets the 304 headers
+    private ResponseEntity<?> respond(CalendarFeedService.CachedFeed feed, WebRequest request) {
+        if (request.checkNotModified(feed.etag(), feed.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .eTag(feed.etag())
+                .lastModified(feed.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(feed.body());
+    }
+}
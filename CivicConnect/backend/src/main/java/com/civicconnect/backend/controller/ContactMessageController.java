@@ -2,7 +2,7 @@ package com.civicconnect.backend.controller;
 
 import com.civicconnect.backend.model.ContactMessage;
 import com.civicconnect.backend.repository.ContactMessageRepository;
-import com.civicconnect.backend.service.EmailService;
+import com.civicconnect.backend.service.ContactMessageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,7 +18,7 @@ public class ContactMessageController {
     private ContactMessageRepository contactMessageRepository;
 
     @Autowired
-    private EmailService emailService;
+    private ContactMessageService contactMessageService;
 
     // Public Endpoint: Submit Contact Form
     @PostMapping
@@ -38,30 +38,6 @@ public class ContactMessageController {
     // Admin Endpoint: Reply to Message
     @PutMapping("/{id}/reply")
     public ContactMessage replyToMessage(@PathVariable Long id, @RequestBody Map<String, String> payload) {
-        ContactMessage message = contactMessageRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Message not found"));
-
-        String reply = payload.get("reply");
-        message.setAdminReply(reply);
-        message.setStatus("RESOLVED");
-
-        ContactMessage updated = contactMessageRepository.save(message);
-
-        // Send Email
-        try {
-            emailService.sendSimpleEmail(
-                    updated.getEmail(),
-                    "Re: " + updated.getSubject() + " - CivicConnect Support",
-                    "Hello " + updated.getName() + ",\n\n" +
-                            "Thank you for reaching out to us. regarding your inquiry:\n\n" +
-                            "\"" + updated.getMessage() + "\"\n\n" +
-                            "Our Response:\n" +
-                            reply + "\n\n" +
-                            "Best Regards,\nCivicConnect Team");
-        } catch (Exception e) {
-            System.err.println("Failed to send reply email: " + e.getMessage());
-        }
-
-        return updated;
+        return contactMessageService.reply(id, payload.get("reply"));
     }
 }
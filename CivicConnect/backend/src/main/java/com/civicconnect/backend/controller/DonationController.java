@@ -3,13 +3,12 @@ package com.civicconnect.backend.controller;
 import com.civicconnect.backend.model.Donation;
 import com.civicconnect.backend.model.Ngo;
 import com.civicconnect.backend.model.User;
+import com.civicconnect.backend.security.CurrentUser;
 import com.civicconnect.backend.service.PaymentService;
-import com.civicconnect.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -24,7 +23,7 @@ public class DonationController {
     private PaymentService paymentService;
     
     @Autowired
-    private UserService userService;
+    private CurrentUser currentUser;
 
     @GetMapping("/ngos")
     public List<Ngo> getNgos() {
@@ -46,8 +45,8 @@ public class DonationController {
 
     // Confirm Donation (Called after redirect back)
     @PostMapping("/confirm")
-    public ResponseEntity<?> confirmDonation(@RequestBody Map<String, Object> data, Authentication auth) {
-        User user = userService.findByUsername(auth.getName());
+    public ResponseEntity<?> confirmDonation(@RequestBody Map<String, Object> data) {
+        User user = currentUser.reference(); // only the donor id is written
         Long ngoId = Long.parseLong(data.get("ngoId").toString());
         Double amount = Double.parseDouble(data.get("amount").toString());
         String txnId = data.get("txnId").toString(); // This is the Session ID now
@@ -1,17 +1,30 @@
 package com.civicconnect.backend.controller;
 
+import com.civicconnect.backend.dto.AdmissionTicket;
+import com.civicconnect.backend.dto.AttendanceScanDto;
 import com.civicconnect.backend.dto.EventCreateDto;
 import com.civicconnect.backend.dto.EventResponseDto;
+import com.civicconnect.backend.dto.EventSearchDto;
 import com.civicconnect.backend.dto.EventUpdateDto;
+import com.civicconnect.backend.dto.FeedbackEntryDto;
+import com.civicconnect.backend.dto.RegistrationResultDto;
 import com.civicconnect.backend.model.EventCategory;
+import com.civicconnect.backend.model.EventRegistration;
 import com.civicconnect.backend.model.User;
-import com.civicconnect.backend.repository.UserRepository;
+import com.civicconnect.backend.security.CurrentUser;
+import com.civicconnect.backend.service.AdmissionQueueService;
+import com.civicconnect.backend.service.CheckInService;
 import com.civicconnect.backend.service.EventService;
+import com.civicconnect.backend.service.ParticipationSummaryService;
+import com.civicconnect.backend.service.RecommendationService;
+import com.civicconnect.backend.service.RosterExportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Arrays;
 import java.util.List;
@@ -24,13 +37,17 @@ import java.util.stream.Collectors;
 public class EventController {
 
     private final EventService eventService;
-    private final UserRepository userRepository;
+    private final AdmissionQueueService admissionQueueService;
+    private final CheckInService checkInService;
+    private final RosterExportService rosterExportService;
+    private final RecommendationService recommendationService;
+    private final ParticipationSummaryService participationSummaryService;
+    private final CurrentUser currentUser;
 
-    // Get current authenticated user
+    // Current authenticated user, as a reference built from the token (no users query unless a
+    // service reads more than the id)
     private User getCurrentUser() {
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return currentUser.reference();
     }
 
     // POST: Create Event (Admin only)
@@ -38,13 +55,14 @@ public class EventController {
     public ResponseEntity<?> createEvent(@RequestBody EventCreateDto dto) {
         User user = getCurrentUser();
         
-        if (!"Admin".equals(user.getRole())) {
+        if (!currentUser.isAdmin()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "Only Admin users can create events"));
         }
 
         try {
             var event = eventService.createEvent(dto, user);
+            admissionQueueService.setFlashSignup(event.getId(), event.isFlashSignup());
             return ResponseEntity.ok(Map.of(
                 "message", "Event created successfully!",
                 "eventId", event.getId()
@@ -62,6 +80,23 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    // GET: Search events (category, status, from/to, q, lat/lng/radiusKm) with keyset pagination via cursor
+    @GetMapping("/search")
+    public ResponseEntity<?> searchEvents(@ModelAttribute EventSearchDto criteria) {
+        try {
+            User user = getCurrentUser();
+            return ResponseEntity.ok(eventService.searchEvents(criteria, user));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // GET: Upcoming events picked for the current user (served from the precomputed index)
+    @GetMapping("/recommended")
+    public ResponseEntity<List<EventResponseDto>> getRecommendedEvents(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(recommendationService.getRecommendations(currentUser.getId(), limit));
+    }
+
     // GET: Get event by ID
     @GetMapping("/{id}")
     public ResponseEntity<?> getEventById(@PathVariable Long id) {
@@ -80,6 +115,7 @@ public class EventController {
         try {
             User user = getCurrentUser();
             var event = eventService.updateEvent(id, dto, user);
+            admissionQueueService.setFlashSignup(event.getId(), event.isFlashSignup());
             return ResponseEntity.ok(Map.of(
                 "message", "Event updated successfully!",
                 "eventId", event.getId()
@@ -101,18 +137,97 @@ public class EventController {
         }
     }
 
-    // POST: Register as volunteer
+    // POST: Register as volunteer (flash sign-up events are queued: 202 + ticket to poll/stream)
     @PostMapping("/{id}/register")
     public ResponseEntity<?> registerVolunteer(@PathVariable Long id) {
+        try {
+            if (admissionQueueService.isFlashSignup(id)) {
+                // Only the id is queued; the drainer loads the whole batch's users in one query
+                AdmissionTicket ticket = admissionQueueService.submit(id, currentUser.getId());
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                    "message", "You are in the queue. Your registration is being processed.",
+                    "ticketId", ticket.getTicketId(),
+                    "status", ticket.getStatus(),
+                    "pollUrl", "/api/events/admission/" + ticket.getTicketId()
+                ));
+            }
+            RegistrationResultDto result = eventService.registerVolunteer(id, getCurrentUser());
+            if ("WAITLISTED".equals(result.getStatus())) {
+                return ResponseEntity.ok(Map.of(
+                    "message", "Event is full. You have been added to the waitlist.",
+                    "status", result.getStatus(),
+                    "waitlistPosition", result.getWaitlistPosition() != null ? result.getWaitlistPosition() : 0
+                ));
+            }
+            return ResponseEntity.ok(Map.of("message", "Successfully registered as volunteer!", "status", result.getStatus()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // GET: Result of a queued flash sign-up
+    @GetMapping("/admission/{ticketId}")
+    public ResponseEntity<?> getAdmissionTicket(@PathVariable String ticketId) {
+        AdmissionTicket ticket = findOwnTicket(ticketId);
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Ticket not found or expired"));
+        }
+        return ResponseEntity.ok(ticket);
+    }
+
+    // GET: SSE stream that emits a single "result" event when the ticket is processed (accepts ?token=)
+    @GetMapping(value = "/admission/{ticketId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamAdmissionTicket(@PathVariable String ticketId) {
+        AdmissionTicket ticket = findOwnTicket(ticketId);
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(admissionQueueService.subscribe(ticket));
+    }
+
+    // Tickets are only visible to the user who queued them (checked without a DB lookup)
+    private AdmissionTicket findOwnTicket(String ticketId) {
+        AdmissionTicket ticket = admissionQueueService.getTicket(ticketId);
+        if (ticket == null || !ticket.getUserId().equals(currentUser.getId())) return null;
+        return ticket;
+    }
+
+    // GET: Signed check-in token for the current user's registration (rendered as a QR code by the app)
+    @GetMapping("/{id}/checkin-token")
+    public ResponseEntity<?> getCheckInToken(@PathVariable Long id) {
         try {
             User user = getCurrentUser();
-            eventService.registerVolunteer(id, user);
-            return ResponseEntity.ok(Map.of("message", "Successfully registered as volunteer!"));
+            EventRegistration registration = eventService.getActiveRegistration(id, user);
+            return ResponseEntity.ok(Map.of(
+                "registrationId", registration.getId(),
+                "token", checkInService.issueToken(registration)
+            ));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    // POST: Batch of QR scans (including scans queued offline) -> attendance (Admin only)
+    @PostMapping("/{id}/attendance")
+    public ResponseEntity<?> markAttendance(@PathVariable Long id, @RequestBody List<AttendanceScanDto> scans) {
+        if (!currentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only Admins can mark attendance"));
+        }
+        return ResponseEntity.ok(checkInService.markAttendance(id, scans));
+    }
+
+    // POST: Bulk import of volunteer feedback (Admin only)
+    @PostMapping("/{id}/feedback/bulk")
+    public ResponseEntity<?> ingestFeedback(@PathVariable Long id, @RequestBody List<FeedbackEntryDto> entries) {
+        if (!currentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only Admins can import feedback"));
+        }
+        int updated = checkInService.ingestFeedback(id, entries);
+        return ResponseEntity.ok(Map.of("received", entries.size(), "updated", updated));
+    }
+
     // DELETE: Unregister from event
     @DeleteMapping("/{id}/register")
     public ResponseEntity<?> unregisterVolunteer(@PathVariable Long id) {
@@ -130,7 +245,7 @@ public class EventController {
     public ResponseEntity<?> getMyEvents() {
         User user = getCurrentUser();
         
-        if (!"Admin".equals(user.getRole())) {
+        if (!currentUser.isAdmin()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "Only Admin users can view created events"));
         }
@@ -139,6 +254,25 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    // GET: My created events, one page at a time (?status=UPCOMING,ONGOING&cursor=...&limit=20)
+    @GetMapping("/my-events/page")
+    public ResponseEntity<?> getMyEventsPage(@RequestParam(required = false) String status,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "20") int limit) {
+        User user = getCurrentUser();
+
+        if (!currentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only Admin users can view created events"));
+        }
+
+        try {
+            return ResponseEntity.ok(eventService.getEventsByCreatorPage(user, status, cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // GET: My registrations (participation history)
     @GetMapping("/my-registrations")
     public ResponseEntity<List<EventResponseDto>> getMyRegistrations() {
@@ -147,6 +281,25 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    // GET: My registrations, one page at a time (?status=ATTENDED,CANCELLED&cursor=...&limit=20)
+    @GetMapping("/my-registrations/page")
+    public ResponseEntity<?> getMyRegistrationsPage(@RequestParam(required = false) String status,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        try {
+            User user = getCurrentUser();
+            return ResponseEntity.ok(eventService.getUserParticipationHistoryPage(user, status, cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // GET: Registration counts by status for the profile header
+    @GetMapping("/my-summary")
+    public ResponseEntity<?> getMySummary() {
+        return ResponseEntity.ok(participationSummaryService.getSummary(currentUser.getId()));
+    }
+
     // GET: Available event categories
     @GetMapping("/categories")
     public ResponseEntity<?> getCategories() {
@@ -169,13 +322,33 @@ public class EventController {
         }
     }
 
+    // GET: Streamed volunteer roster as CSV (default) or XLSX (Admin only)
+    @GetMapping("/{id}/roster")
+    public ResponseEntity<?> exportRoster(@PathVariable Long id, @RequestParam(defaultValue = "csv") String format) {
+        if (!currentUser.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only Admins can export the volunteer roster"));
+        }
+
+        boolean xlsx = "xlsx".equalsIgnoreCase(format);
+        StreamingResponseBody body = out -> {
+            if (xlsx) rosterExportService.writeXlsx(id, out);
+            else rosterExportService.writeCsv(id, out);
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"event-" + id + "-volunteers." + (xlsx ? "xlsx" : "csv") + "\"")
+                .contentType(xlsx
+                        ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                        : MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(body);
+    }
+
     // --- 👇 NEW ENDPOINT: Get Volunteer List (Admin Only) ---
     @GetMapping("/{id}/volunteers")
     public ResponseEntity<?> getEventVolunteers(@PathVariable Long id) {
         try {
-            User user = getCurrentUser();
-            
-            if (!"Admin".equals(user.getRole())) {
+            if (!currentUser.isAdmin()) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
                         .body(Map.of("error", "Only Admins can view the volunteer list"));
             }
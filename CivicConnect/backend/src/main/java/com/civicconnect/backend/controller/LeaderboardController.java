@@ -0,0 +1,56 @@
+package com.civicconnect.backend.controller;
+
+import com.civicconnect.backend.dto.LeaderboardEntryDto;
+import com.civicconnect.backend.model.EventCategory;
+import com.civicconnect.backend.security.CurrentUser;
+import com.civicconnect.backend.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+    private final CurrentUser currentUser;
+
+    // GET: Top volunteers, city-wide or for one category (?category=ENVIRONMENT)
+    @GetMapping
+    public ResponseEntity<?> getTop(@RequestParam(required = false) String category,
+                                    @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(leaderboardService.getTop(parseCategory(category), limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid category"));
+        }
+    }
+
+    // GET: The current user's rank (rank is null until they have attended an event)
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyRank(@RequestParam(required = false) String category) {
+        EventCategory eventCategory;
+        try {
+            eventCategory = parseCategory(category);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid category"));
+        }
+        LeaderboardEntryDto entry = leaderboardService.getRank(currentUser.getId(), eventCategory);
+        if (entry != null) return ResponseEntity.ok(entry);
+        Map<String, Object> empty = new HashMap<>();
+        empty.put("rank", null);
+        empty.put("userId", currentUser.getId());
+        empty.put("username", currentUser.getUsername());
+        empty.put("attendedEvents", 0);
+        empty.put("hours", 0);
+        return ResponseEntity.ok(empty);
+    }
+
+    private static EventCategory parseCategory(String category) {
+        return category == null || category.isBlank() ? null : EventCategory.valueOf(category.toUpperCase());
+    }
+}
@@ -1,12 +1,9 @@
 package com.civicconnect.backend.controller;
 
 import com.civicconnect.backend.model.PublicUtility;
-import com.civicconnect.backend.model.User;
 import com.civicconnect.backend.repository.PublicUtilityRepository;
-import com.civicconnect.backend.repository.UserRepository;
+import com.civicconnect.backend.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,7 +17,7 @@ public class PublicUtilityController {
     private PublicUtilityRepository utilityRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUser currentUser;
 
     // GET ALL (Public)
     @GetMapping
@@ -34,15 +31,10 @@ public class PublicUtilityController {
 
     // POST (Protected: Checks ROLE instead of Name)
     @PostMapping
-    public PublicUtility addUtility(@RequestBody PublicUtility utility, @AuthenticationPrincipal UserDetails userDetails) {
-        String username = userDetails.getUsername();
-
-        // FIX 2: Check the ACTUAL ROLE from the database
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!"Admin".equals(user.getRole())) {
-            throw new RuntimeException("Access Denied: You are not an Admin. Role is: " + user.getRole());
+    public PublicUtility addUtility(@RequestBody PublicUtility utility) {
+        // Role comes from the signed token (kept in step with the database by TokenRevocationCache)
+        if (!currentUser.isAdmin()) {
+            throw new RuntimeException("Access Denied: You are not an Admin. Role is: " + currentUser.getRole());
         }
         
         return utilityRepository.save(utility);
@@ -0,0 +1,26 @@
+package com.civicconnect.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// A queued sign-up for a flash-mode event. Created by the request thread, completed by the drainer.
+@Data
+public class AdmissionTicket {
+    private String ticketId;
+    private Long eventId;
+    private volatile String status = "PENDING"; // PENDING, REGISTERED, WAITLISTED, FAILED
+    private volatile Integer waitlistPosition;
+    private volatile String message;
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private volatile LocalDateTime completedAt;
+
+    @JsonIgnore
+    private Long userId;
+
+    @JsonIgnore
+    public boolean isDone() {
+        return !"PENDING".equals(status);
+    }
+}
@@ -0,0 +1,16 @@
+package com.civicconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Slim projection of User used by alert fan-out (no password hash, no managed entity)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertRecipient {
+    private Long id;
+    private String username;
+    private String email;
+    private String mobileNumber;
+}
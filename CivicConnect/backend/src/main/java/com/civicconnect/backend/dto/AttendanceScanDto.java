@@ -0,0 +1,11 @@
+package com.civicconnect.backend.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// One QR scan from a coordinator's device; scannedAt is set by the device (scans may be queued offline)
+@Data
+public class AttendanceScanDto {
+    private String token;
+    private LocalDateTime scannedAt;
+}
@@ -0,0 +1,26 @@
+package com.civicconnect.backend.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class BroadcastProgressDto {
+    private Long alertId;
+    private String status; // RUNNING, COMPLETED, FAILED
+    private long recipientsScanned;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private double elapsedSeconds;
+    private Map<String, ChannelProgress> channels = new LinkedHashMap<>();
+
+    @Data
+    public static class ChannelProgress {
+        private long queued;
+        private long sent;
+        private long failed;
+        private int backlog; // messages waiting in the channel queue right now
+        private double throughputPerSecond;
+    }
+}
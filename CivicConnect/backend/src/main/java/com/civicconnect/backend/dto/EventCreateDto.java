@@ -9,8 +9,11 @@ public class EventCreateDto {
     private String title;
     private String description;
     private String venue;
+    private Double latitude;
+    private Double longitude;
     private LocalDateTime eventDate;
     private EventCategory category;
     private Integer maxVolunteers; // null means unlimited
     private String imageUrl;
+    private Boolean flashSignup; // queue registrations for very popular drives
 }
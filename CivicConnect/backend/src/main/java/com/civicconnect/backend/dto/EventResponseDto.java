@@ -10,15 +10,21 @@ public class EventResponseDto {
     private String title;
     private String description;
     private String venue;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm; // only set by distance search
     private LocalDateTime eventDate;
     private EventCategory category;
     private Integer maxVolunteers;
     private String status;
     private String imageUrl;
+    private boolean flashSignup;
     private String creatorName;
     private Long creatorId;
     private LocalDateTime createdAt;
     private int registrationCount;
     private boolean userRegistered; // Changed from isUserRegistered
     private Integer availableSlots; // null if unlimited
+    private Integer waitlistPosition; // 1-based, null unless the current user is waitlisted
+    private String registrationStatus; // the current user's registration status, set by history feeds
 }
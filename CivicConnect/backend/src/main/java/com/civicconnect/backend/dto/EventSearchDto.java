@@ -0,0 +1,29 @@
+package com.civicconnect.backend.dto;
+
+import com.civicconnect.backend.model.EventCategory;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Query parameters for GET /api/events/search. Every filter is optional.
+@Data
+public class EventSearchDto {
+    private EventCategory category;
+    private String status; // UPCOMING, ONGOING, COMPLETED, CANCELLED
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private String q; // free text over title, description and venue
+
+    private Double lat;
+    private Double lng;
+    private Double radiusKm;
+
+    private String cursor; // nextCursor from the previous page
+    private int limit = 20;
+}
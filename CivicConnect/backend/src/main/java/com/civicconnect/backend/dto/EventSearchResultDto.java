@@ -0,0 +1,15 @@
+package com.civicconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSearchResultDto {
+    private List<EventResponseDto> events;
+    private String nextCursor; // null on the last page
+}
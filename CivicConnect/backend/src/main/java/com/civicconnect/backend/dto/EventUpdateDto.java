@@ -9,9 +9,12 @@ public class EventUpdateDto {
     private String title;
     private String description;
     private String venue;
+    private Double latitude;
+    private Double longitude;
     private LocalDateTime eventDate;
     private EventCategory category;
     private Integer maxVolunteers;
     private String imageUrl;
+    private Boolean flashSignup;
     private String status; // UPCOMING, ONGOING, COMPLETED, CANCELLED
 }
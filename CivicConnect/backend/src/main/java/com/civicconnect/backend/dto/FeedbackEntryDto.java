@@ -0,0 +1,9 @@
+package com.civicconnect.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class FeedbackEntryDto {
+    private Long registrationId;
+    private String feedback;
+}
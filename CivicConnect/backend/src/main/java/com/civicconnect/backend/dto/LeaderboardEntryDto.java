@@ -0,0 +1,16 @@
+package com.civicconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDto {
+    private int rank; // 1-based; volunteers with the same score share a rank
+    private Long userId;
+    private String username;
+    private int attendedEvents;
+    private long hours; // attendedEvents x civic.events.lifecycle.duration-hours
+}
@@ -0,0 +1,16 @@
+package com.civicconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipationSummaryDto {
+    private int registered; // currently registered (upcoming or not yet checked in)
+    private int waitlisted;
+    private int attended;
+    private int cancelled;
+    private int total;
+}
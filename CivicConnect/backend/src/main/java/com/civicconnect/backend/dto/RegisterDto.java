@@ -22,5 +22,11 @@ public class RegisterDto {
 
     @NotBlank(message = "Mobile number is required")
     private String mobileNumber;
+
+    // Optional location, used to target area alerts
+    private String city;
+    private String ward;
+    private Double latitude;
+    private Double longitude;
     // Role will default to "Citizen" if not provided
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.civicconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegistrationResultDto {
+    private String status; // REGISTERED or WAITLISTED
+    private Integer waitlistPosition; // null unless WAITLISTED
+}
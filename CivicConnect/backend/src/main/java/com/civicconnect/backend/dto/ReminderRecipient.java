@@ -0,0 +1,15 @@
+package com.civicconnect.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Projection used by the reminder engine (no entity graph loaded per registration)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderRecipient {
+    private Long registrationId;
+    private String username;
+    private String email;
+}
@@ -22,6 +22,15 @@ public class Alert {
 
     private String city;
 
+    // Optional narrower targeting: a ward inside the city, or a point + radius
+    private String ward;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private Double radiusKm;
+
     private LocalDateTime createdAt;
 
     @PrePersist
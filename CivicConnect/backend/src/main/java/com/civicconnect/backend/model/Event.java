@@ -4,10 +4,21 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        // Event search: equality columns first, then the (event_date, id) keyset
+        @Index(name = "idx_event_status_date", columnList = "status, event_date, id"),
+        @Index(name = "idx_event_category_status_date", columnList = "category, status, event_date, id"),
+        @Index(name = "idx_event_lat_lng", columnList = "latitude, longitude"),
+        // "My events" feed: (created_by, created_at, id) keyset
+        @Index(name = "idx_event_creator_created", columnList = "created_by, created_at, id")
+})
+@DynamicUpdate // entity saves must not overwrite registeredCount maintained by bulk UPDATEs
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +37,11 @@ public class Event {
     @Column(nullable = false)
     private String venue;
 
+    // Optional venue coordinates, used by distance search
+    private Double latitude;
+
+    private Double longitude;
+
     @Column(nullable = false)
     private LocalDateTime eventDate;
 
@@ -41,12 +57,24 @@ public class Event {
 
     private String imageUrl;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Flash sign-up mode: registrations go through the in-memory admission queue (AdmissionQueueService)
+    @Column(name = "flash_signup", nullable = false)
+    private boolean flashSignup = false;
+
+    // Lazy: listings that show the creator fetch it explicitly (see EventRepository)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User createdBy;
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Denormalized count of REGISTERED rows. Only changed through the conditional UPDATEs in
+    // EventRepository (reserveSlot/releaseSlot) so capacity holds under concurrent sign-ups.
+    @Column(name = "registered_count", nullable = false)
+    private int registeredCount = 0;
+
     // This will be calculated from EventRegistration count, not stored
     @Transient
     private int registrationCount = 0;
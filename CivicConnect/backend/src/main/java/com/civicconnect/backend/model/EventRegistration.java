@@ -4,11 +4,19 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "event_registrations", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"}),
+       indexes = {
+               // FIFO waitlist: head lookup and position counts walk (event, status, waitlisted_at)
+               @Index(name = "idx_registration_waitlist", columnList = "event_id, status, waitlisted_at, id"),
+               // Participation history feed: (user_id, registered_at, id) keyset
+               @Index(name = "idx_registration_user_history", columnList = "user_id, registered_at, id")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,19 +26,30 @@ public class EventRegistration {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Both sides are lazy; each use case fetches what it needs (see EventRegistrationRepository)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Event event;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
     @Column(nullable = false)
     private LocalDateTime registeredAt = LocalDateTime.now();
 
     @Column(nullable = false)
-    private String status = "REGISTERED"; // REGISTERED, ATTENDED, CANCELLED
+    private String status = "REGISTERED"; // REGISTERED, WAITLISTED, ATTENDED, CANCELLED
+
+    // Set when the volunteer joins the waitlist; orders the FIFO queue (ties broken by id)
+    private LocalDateTime waitlistedAt;
+
+    // Set by QR check-in (scan time reported by the coordinator's device)
+    private LocalDateTime checkedInAt;
 
     @Column(columnDefinition = "TEXT")
     private String feedback; // Post-event feedback from volunteer
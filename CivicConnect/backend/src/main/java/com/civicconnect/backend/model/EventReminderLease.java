@@ -0,0 +1,37 @@
+package com.civicconnect.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// One row per (event, reminder window). A node takes the lease before enqueueing reminders for
+// the event, so several nodes never work on the same event at once. A crashed node's pass is
+// simply redone by the next holder: the outbox dedupe keys say who has been reminded already.
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "event_reminder_lease",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "reminder_window"}))
+public class EventReminderLease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "reminder_window", nullable = false, length = 10)
+    private String reminderWindow; // 24H, 2H
+
+    // Last registration id enqueued by the latest pass (progress only; every pass starts from 0)
+    @Column(nullable = false)
+    private Long lastRegistrationId = 0L;
+
+    private String leaseOwner;
+
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
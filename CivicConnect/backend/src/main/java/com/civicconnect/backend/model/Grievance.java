@@ -1,10 +1,17 @@
 package com.civicconnect.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "grievances")
+@Table(name = "grievances", indexes = {
+        @Index(name = "idx_grievance_ai_risk", columnList = "ai_risk_level, status"),
+        @Index(name = "idx_grievance_ai_department", columnList = "ai_department"),
+        @Index(name = "idx_grievance_ai_hours", columnList = "ai_estimated_hours")
+})
 public class Grievance {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +32,30 @@ public class Grievance {
     @Column(name = "ai_analysis_json", columnDefinition = "TEXT") // Use VARCHAR(4000) or LONGTEXT if TEXT isn't supported by your DB dialect
     private String aiAnalysisJson;
 
+    // Typed copies of the action plan fields so they can be filtered in SQL (filled by AiService)
+    @Column(name = "ai_risk_level", length = 20)
+    private String aiRiskLevel;
+
+    @Column(name = "ai_department", length = 100)
+    private String aiDepartment;
+
+    @Column(name = "ai_estimated_hours")
+    private Integer aiEstimatedHours;
+
+    // When the typed columns were last filled from aiAnalysisJson (also set when the JSON would not
+    // parse), so the backfill does not keep re-reading plans that simply have no risk level
+    @Column(name = "ai_fields_parsed_at")
+    private LocalDateTime aiFieldsParsedAt;
+
+    // Full list is still in aiAnalysisJson for the UI; this table exists for queries only
+    @JsonIgnore
+    @ElementCollection
+    @CollectionTable(name = "grievance_recommended_actions",
+            joinColumns = @JoinColumn(name = "grievance_id"),
+            indexes = @Index(name = "idx_grievance_action_grievance", columnList = "grievance_id"))
+    @Column(name = "action", length = 500)
+    private List<String> aiRecommendedActions = new ArrayList<>();
+
     private String resolutionRemark;
 
     @Column(updatable = false)
@@ -71,4 +102,19 @@ public class Grievance {
 
     public String getAiAnalysisJson() { return aiAnalysisJson; }
     public void setAiAnalysisJson(String aiAnalysisJson) { this.aiAnalysisJson = aiAnalysisJson; }
+
+    public String getAiRiskLevel() { return aiRiskLevel; }
+    public void setAiRiskLevel(String aiRiskLevel) { this.aiRiskLevel = aiRiskLevel; }
+
+    public String getAiDepartment() { return aiDepartment; }
+    public void setAiDepartment(String aiDepartment) { this.aiDepartment = aiDepartment; }
+
+    public Integer getAiEstimatedHours() { return aiEstimatedHours; }
+    public void setAiEstimatedHours(Integer aiEstimatedHours) { this.aiEstimatedHours = aiEstimatedHours; }
+
+    public LocalDateTime getAiFieldsParsedAt() { return aiFieldsParsedAt; }
+    public void setAiFieldsParsedAt(LocalDateTime aiFieldsParsedAt) { this.aiFieldsParsedAt = aiFieldsParsedAt; }
+
+    public List<String> getAiRecommendedActions() { return aiRecommendedActions; }
+    public void setAiRecommendedActions(List<String> aiRecommendedActions) { this.aiRecommendedActions = aiRecommendedActions; }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.civicconnect.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Transactional outbox for outgoing email: rows are written in the same transaction as the
+// domain change and delivered later by NotificationOutboxRelay.
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_outbox_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_outbox_lease", columnList = "lease_owner")
+})
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 500)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    // Optional HTML alternative; when present the message is sent as multipart text + HTML
+    @Column(columnDefinition = "TEXT")
+    private String htmlBody;
+
+    // Optional caller-supplied key; a second enqueue with the same key is ignored
+    @Column(name = "dedupe_key", unique = true, length = 200)
+    private String dedupeKey;
+
+    @Column(nullable = false, length = 20)
+    private String status = "PENDING"; // PENDING, SENDING, SENT, FAILED
+
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    // Relay instance currently delivering this row, and until when it holds it
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    private LocalDateTime leaseUntil;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,31 @@
+package com.civicconnect.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Per-user registration counts by status, kept in step with event_registrations by
+// ParticipationSummaryService (delta UPDATEs in the same transaction as each status change),
+// so the profile header reads one row instead of scanning the user's history.
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "participation_summaries")
+public class ParticipationSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private int registered = 0;
+
+    @Column(nullable = false)
+    private int waitlisted = 0;
+
+    @Column(nullable = false)
+    private int attended = 0;
+
+    @Column(nullable = false)
+    private int cancelled = 0;
+}
@@ -7,7 +7,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Alert recipient index: targeted fan-out pages by (area, id) instead of scanning all users
+        @Index(name = "idx_user_city_ward", columnList = "city, ward, id"),
+        @Index(name = "idx_user_geo_cell", columnList = "geo_cell, id"),
+        @Index(name = "idx_user_lat_lng", columnList = "latitude, longitude")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,4 +39,42 @@ public class User {
     private String role = "Citizen"; 
 
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Location used for targeted alerts (all optional). City/ward are stored normalized.
+    private String city;
+
+    private String ward;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    // Grid cell derived from latitude/longitude, see geoCell()
+    @Column(name = "geo_cell", length = 32)
+    private String geoCell;
+
+    // Size of one grid cell in degrees (~5.5 km north-south)
+    public static final double GEO_CELL_DEGREES = 0.05;
+
+    @PrePersist
+    @PreUpdate
+    protected void normalizeLocation() {
+        city = normalizeArea(city);
+        ward = normalizeArea(ward);
+        geoCell = geoCell(latitude, longitude);
+    }
+
+    public static String normalizeArea(String area) {
+        if (area == null || area.isBlank()) return null;
+        return area.trim().replaceAll("\\s+", " ").toUpperCase();
+    }
+
+    public static String geoCell(Double lat, Double lng) {
+        if (lat == null || lng == null) return null;
+        return geoCell((long) Math.floor(lat / GEO_CELL_DEGREES), (long) Math.floor(lng / GEO_CELL_DEGREES));
+    }
+
+    public static String geoCell(long latIndex, long lngIndex) {
+        return latIndex + ":" + lngIndex;
+    }
 }
\ No newline at end of file
@@ -1,13 +1,23 @@
 package com.civicconnect.backend.repository;
 
 import com.civicconnect.backend.model.Alert;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AlertRepository extends JpaRepository<Alert, Long> {
     // Check specific ordering if needed, e.g., newest first
     List<Alert> findAllByOrderByCreatedAtDesc();
+
+    // Cursor reads for polling clients: only alerts newer than the last id they saw, oldest first so
+    // a client that advances its cursor to the last id of each page never skips any
+    List<Alert> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Alert> findAllByOrderByIdDesc(Pageable pageable);
+
+    Optional<Alert> findTopByOrderByIdDesc();
 }
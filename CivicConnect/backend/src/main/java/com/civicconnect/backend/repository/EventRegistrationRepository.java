@@ -1,11 +1,21 @@
 package com.civicconnect.backend.repository;
 
+import com.civicconnect.backend.dto.ReminderRecipient;
 import com.civicconnect.backend.model.Event;
 import com.civicconnect.backend.model.EventRegistration;
 import com.civicconnect.backend.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +23,12 @@ import java.util.Optional;
 public interface EventRegistrationRepository extends JpaRepository<EventRegistration, Long> {
     
     Optional<EventRegistration> findByEventAndUser(Event event, User user);
+
+    // Register/cancel: the user's row, locked so concurrent requests for the same (event, user)
+    // run one after the other (a reused cancelled row has no unique insert to collide on)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM EventRegistration r WHERE r.event = :event AND r.user = :user")
+    Optional<EventRegistration> findByEventAndUserForUpdate(@Param("event") Event event, @Param("user") User user);
     
     List<EventRegistration> findByUserOrderByRegisteredAtDesc(User user);
     
@@ -27,5 +43,103 @@ public interface EventRegistrationRepository extends JpaRepository<EventRegistra
     void deleteByEventAndUser(Event event, User user);
 
     // --- 👇 NEW METHOD ---
+    // Roster: the volunteers are what the caller reads, so they come in the same query
+    @EntityGraph(attributePaths = "user")
     List<EventRegistration> findByEventAndStatus(Event event, String status);
+
+    @EntityGraph(attributePaths = "user")
+    List<EventRegistration> findByEventAndStatusIn(Event event, Collection<String> statuses);
+
+    // Batched listing: one GROUP BY for all listed events instead of a count per event.
+    // Rows are [eventId, count]; events with no registrations are absent.
+    @Query("SELECT r.event.id, COUNT(r) FROM EventRegistration r " +
+           "WHERE r.event.id IN :eventIds AND r.status IN :statuses GROUP BY r.event.id")
+    List<Object[]> countByEventIdsAndStatuses(@Param("eventIds") Collection<Long> eventIds,
+                                              @Param("statuses") Collection<String> statuses);
+
+    // Batched listing: the user's registration status for each of the listed events. Rows are [eventId, status].
+    @Query("SELECT r.event.id, r.status FROM EventRegistration r " +
+           "WHERE r.user.id = :userId AND r.event.id IN :eventIds AND r.status IN :statuses")
+    List<Object[]> findStatusesByUser(@Param("userId") Long userId, @Param("eventIds") Collection<Long> eventIds,
+                                      @Param("statuses") Collection<String> statuses);
+
+    // 1-based waitlist position of the user on each listed event they are waitlisted for. Rows are [eventId, position].
+    @Query("SELECT r.event.id, COUNT(w) FROM EventRegistration r, EventRegistration w " +
+           "WHERE r.user.id = :userId AND r.status = 'WAITLISTED' AND r.event.id IN :eventIds " +
+           "AND w.event.id = r.event.id AND w.status = 'WAITLISTED' " +
+           "AND (w.waitlistedAt < r.waitlistedAt OR (w.waitlistedAt = r.waitlistedAt AND w.id <= r.id)) " +
+           "GROUP BY r.event.id")
+    List<Object[]> findWaitlistPositions(@Param("userId") Long userId, @Param("eventIds") Collection<Long> eventIds);
+
+    // Front of an event's waitlist, oldest first (users fetched: promoted volunteers are emailed)
+    @Query("SELECT r FROM EventRegistration r JOIN FETCH r.user WHERE r.event.id = :eventId AND r.status = 'WAITLISTED' " +
+           "ORDER BY r.waitlistedAt ASC, r.id ASC")
+    List<EventRegistration> findWaitlistHead(@Param("eventId") Long eventId, Pageable pageable);
+
+    // Promotion only succeeds while the row is still waitlisted (guards against a concurrent cancel/promote)
+    @Modifying
+    @Query("UPDATE EventRegistration r SET r.status = 'REGISTERED', r.registeredAt = :now " +
+           "WHERE r.id = :id AND r.status = 'WAITLISTED'")
+    int promoteFromWaitlist(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Admission drainer: existing rows for a batch of users on one event
+    @Query("SELECT r FROM EventRegistration r WHERE r.event.id = :eventId AND r.user.id IN :userIds")
+    List<EventRegistration> findByEventIdAndUserIds(@Param("eventId") Long eventId, @Param("userIds") Collection<Long> userIds);
+
+    // Reminder engine: REGISTERED volunteers of one event without a reminder in the outbox yet
+    // (dedupe key = prefix + registration id, unique-indexed), paged by registration id
+    @Query("SELECT new com.civicconnect.backend.dto.ReminderRecipient(r.id, u.username, u.email) " +
+           "FROM EventRegistration r JOIN r.user u " +
+           "WHERE r.event.id = :eventId AND r.status = 'REGISTERED' AND r.id > :afterId " +
+           "AND NOT EXISTS (SELECT 1 FROM NotificationOutbox o WHERE o.dedupeKey = CONCAT(:dedupePrefix, CAST(r.id AS String))) " +
+           "ORDER BY r.id ASC")
+    List<ReminderRecipient> findReminderRecipients(@Param("eventId") Long eventId, @Param("dedupePrefix") String dedupePrefix,
+                                                   @Param("afterId") Long afterId, Pageable pageable);
+
+    // QR check-in: live registrations of a chunk, row-locked so the summary deltas recorded for
+    // them match exactly the rows the following markAttended changes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM EventRegistration r WHERE r.id IN :ids AND r.event.id = :eventId AND r.status = 'REGISTERED'")
+    List<EventRegistration> findLiveForUpdate(@Param("ids") Collection<Long> ids, @Param("eventId") Long eventId);
+
+    // QR check-in: chunked attendance marking; only live registrations of this event are updated
+    @Modifying
+    @Query("UPDATE EventRegistration r SET r.status = 'ATTENDED', r.checkedInAt = :at " +
+           "WHERE r.id IN :ids AND r.event.id = :eventId AND r.status = 'REGISTERED'")
+    int markAttended(@Param("ids") Collection<Long> ids, @Param("eventId") Long eventId, @Param("at") LocalDateTime at);
+
+    // Participation history with event and creator fetched in the same query (r.user is the caller)
+    @Query("SELECT r FROM EventRegistration r JOIN FETCH r.event e JOIN FETCH e.createdBy " +
+           "WHERE r.user = :user ORDER BY r.registeredAt DESC")
+    List<EventRegistration> findHistoryWithEvents(@Param("user") User user);
+
+    // Paged participation history, newest first; keyset on (registeredAt, id) via idx_registration_user_history
+    @Query("SELECT r FROM EventRegistration r JOIN FETCH r.event e JOIN FETCH e.createdBy " +
+           "WHERE r.user = :user AND r.status IN :statuses ORDER BY r.registeredAt DESC, r.id DESC")
+    List<EventRegistration> findHistoryPage(@Param("user") User user, @Param("statuses") Collection<String> statuses,
+                                            Pageable pageable);
+
+    @Query("SELECT r FROM EventRegistration r JOIN FETCH r.event e JOIN FETCH e.createdBy " +
+           "WHERE r.user = :user AND r.status IN :statuses " +
+           "AND (r.registeredAt < :afterAt OR (r.registeredAt = :afterAt AND r.id < :afterId)) " +
+           "ORDER BY r.registeredAt DESC, r.id DESC")
+    List<EventRegistration> findHistoryPageAfter(@Param("user") User user, @Param("statuses") Collection<String> statuses,
+                                                 @Param("afterAt") LocalDateTime afterAt, @Param("afterId") Long afterId,
+                                                 Pageable pageable);
+
+    // Recommendation index: participation signals paged by registration id. Rows are
+    // [registrationId, userId, eventId, category, venue, latitude, longitude, registeredAt, status]
+    @Query("SELECT r.id, r.user.id, e.id, e.category, e.venue, e.latitude, e.longitude, r.registeredAt, r.status " +
+           "FROM EventRegistration r JOIN r.event e " +
+           "WHERE r.id > :afterId AND r.status <> 'CANCELLED' ORDER BY r.id ASC")
+    List<Object[]> findParticipationSignals(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Leaderboard: attended events per (user, category). Rows are [userId, username, category, count]
+    @Query("SELECT u.id, u.username, e.category, COUNT(r) FROM EventRegistration r JOIN r.user u JOIN r.event e " +
+           "WHERE r.status = 'ATTENDED' GROUP BY u.id, u.username, e.category")
+    List<Object[]> countAttendedByUserAndCategory();
+
+    @Query("SELECT u.id, u.username, e.category, COUNT(r) FROM EventRegistration r JOIN r.user u JOIN r.event e " +
+           "WHERE r.status = 'ATTENDED' AND u.id IN :userIds GROUP BY u.id, u.username, e.category")
+    List<Object[]> countAttendedByUserAndCategory(@Param("userIds") Collection<Long> userIds);
 }
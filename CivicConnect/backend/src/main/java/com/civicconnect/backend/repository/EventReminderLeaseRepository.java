@@ -0,0 +1,34 @@
+package com.civicconnect.backend.repository;
+
+import com.civicconnect.backend.model.EventReminderLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface EventReminderLeaseRepository extends JpaRepository<EventReminderLease, Long> {
+
+    Optional<EventReminderLease> findByEventIdAndReminderWindow(Long eventId, String reminderWindow);
+
+    // Conditional claim: succeeds only if the lease is free or expired
+    @Modifying
+    @Query("UPDATE EventReminderLease l SET l.leaseOwner = :owner, l.leaseUntil = :until, l.updatedAt = :now " +
+           "WHERE l.id = :id AND (l.leaseUntil IS NULL OR l.leaseUntil < :now)")
+    int claim(@Param("id") Long id, @Param("owner") String owner,
+              @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE EventReminderLease l SET l.lastRegistrationId = :lastId, l.leaseUntil = :until, l.updatedAt = :now " +
+           "WHERE l.id = :id AND l.leaseOwner = :owner")
+    int advance(@Param("id") Long id, @Param("owner") String owner, @Param("lastId") Long lastId,
+                @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE EventReminderLease l SET l.leaseOwner = NULL, l.leaseUntil = NULL WHERE l.id = :id AND l.leaseOwner = :owner")
+    int release(@Param("id") Long id, @Param("owner") String owner);
+}
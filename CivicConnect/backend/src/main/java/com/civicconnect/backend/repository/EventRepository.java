@@ -3,14 +3,24 @@ package com.civicconnect.backend.repository;
 import com.civicconnect.backend.model.Event;
 import com.civicconnect.backend.model.EventCategory;
 import com.civicconnect.backend.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
     
     List<Event> findByStatus(String status);
     
@@ -22,5 +32,86 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     
     List<Event> findByStatusAndEventDateAfterOrderByEventDateAsc(String status, LocalDateTime date);
     
+    @EntityGraph(attributePaths = "createdBy")
     List<Event> findByCreatedByOrderByCreatedAtDesc(User user);
+
+    // Paged "my events", newest first; keyset on (createdAt, id) via idx_event_creator_created
+    @EntityGraph(attributePaths = "createdBy")
+    @Query("SELECT e FROM Event e WHERE e.createdBy = :user AND e.status IN :statuses " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<Event> findCreatedPage(@Param("user") User user, @Param("statuses") Collection<String> statuses, Pageable pageable);
+
+    @EntityGraph(attributePaths = "createdBy")
+    @Query("SELECT e FROM Event e WHERE e.createdBy = :user AND e.status IN :statuses " +
+           "AND (e.createdAt < :afterAt OR (e.createdAt = :afterAt AND e.id < :afterId)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<Event> findCreatedPageAfter(@Param("user") User user, @Param("statuses") Collection<String> statuses,
+                                     @Param("afterAt") LocalDateTime afterAt, @Param("afterId") Long afterId,
+                                     Pageable pageable);
+
+    // Event detail: event and creator in one query
+    @EntityGraph(attributePaths = "createdBy")
+    Optional<Event> findWithCreatorById(Long id);
+
+    // Listing variants that fetch the creator in the same query (no follow-up select per creator)
+    @Query("SELECT e FROM Event e JOIN FETCH e.createdBy " +
+           "WHERE e.status = :status AND e.eventDate > :date ORDER BY e.eventDate ASC")
+    List<Event> findUpcomingWithCreator(@Param("status") String status, @Param("date") LocalDateTime date);
+
+    @Query("SELECT e FROM Event e JOIN FETCH e.createdBy WHERE e.category = :category")
+    List<Event> findByCategoryWithCreator(@Param("category") EventCategory category);
+
+    // Category calendar feed: only events inside the feed's history window, no creator (not rendered)
+    @Query("SELECT e FROM Event e WHERE e.category = :category AND e.eventDate >= :cutoff ORDER BY e.eventDate ASC")
+    List<Event> findCalendarByCategory(@Param("category") EventCategory category, @Param("cutoff") LocalDateTime cutoff);
+
+    // Atomic capacity reservation: the row lock taken by the UPDATE serializes concurrent sign-ups,
+    // and the WHERE clause rejects the reservation once the event is full. Returns 1 if reserved.
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount + 1 " +
+           "WHERE e.id = :id AND (e.maxVolunteers IS NULL OR e.registeredCount < e.maxVolunteers)")
+    int reserveSlot(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount - 1 WHERE e.id = :id AND e.registeredCount > 0")
+    int releaseSlot(@Param("id") Long id);
+
+    // Admission drainer: bulk reservation for slots already checked under findByIdForUpdate
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = e.registeredCount + :count WHERE e.id = :id")
+    int addRegisteredCount(@Param("id") Long id, @Param("count") int count);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id = :id")
+    Optional<Event> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT e.id FROM Event e WHERE e.flashSignup = true")
+    List<Long> findFlashSignupIds();
+
+    long countByStatus(String status);
+
+    // Lifecycle engine: set-based transitions, see EventLifecycleService
+    @Modifying
+    @Query("UPDATE Event e SET e.status = 'ONGOING' " +
+           "WHERE e.status = 'UPCOMING' AND e.eventDate <= :now AND e.eventDate > :completedBefore")
+    int markOngoing(@Param("now") LocalDateTime now, @Param("completedBefore") LocalDateTime completedBefore);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.status = 'COMPLETED' " +
+           "WHERE e.status IN ('UPCOMING', 'ONGOING') AND e.eventDate <= :completedBefore")
+    int markCompleted(@Param("completedBefore") LocalDateTime completedBefore);
+
+    // Reminder engine: upcoming events starting in (from, to], via idx_event_status_date
+    @Query("SELECT e FROM Event e WHERE e.status = 'UPCOMING' AND e.eventDate > :from AND e.eventDate <= :to " +
+           "ORDER BY e.eventDate ASC")
+    List<Event> findUpcomingStartingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT DISTINCT e.eventDate FROM Event e WHERE e.status = :status")
+    List<LocalDateTime> findDistinctEventDatesByStatus(@Param("status") String status);
+
+    // Recomputes the counter from the registrations table (startup repair for rows created before the column)
+    @Modifying
+    @Query("UPDATE Event e SET e.registeredCount = " +
+           "(SELECT COUNT(r) FROM EventRegistration r WHERE r.event = e AND r.status IN ('REGISTERED', 'ATTENDED'))")
+    int reconcileRegisteredCounts();
 }
@@ -0,0 +1,64 @@
+package com.civicconnect.backend.repository;
+
+import com.civicconnect.backend.model.Event;
+import com.civicconnect.backend.model.EventCategory;
+import jakarta.persistence.criteria.JoinType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+// Building blocks for event search. Only the filters actually supplied end up in the SQL,
+// so the planner can pick the matching composite index (see Event's @Table indexes).
+public final class EventSpecifications {
+
+    private EventSpecifications() {
+    }
+
+    public static Specification<Event> hasCategory(EventCategory category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Event> hasStatus(String status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Event> onOrAfter(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("eventDate"), from);
+    }
+
+    public static Specification<Event> onOrBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("eventDate"), to);
+    }
+
+    public static Specification<Event> matchesText(String text) {
+        String pattern = "%" + text.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("title")), pattern, '\\'),
+                cb.like(cb.lower(root.get("description")), pattern, '\\'),
+                cb.like(cb.lower(root.get("venue")), pattern, '\\'));
+    }
+
+    // Bounding box around a point; the exact distance is checked in memory afterwards
+    public static Specification<Event> withinBox(double minLat, double maxLat, double minLng, double maxLng) {
+        return (root, query, cb) -> cb.and(
+                cb.between(root.get("latitude"), minLat, maxLat),
+                cb.between(root.get("longitude"), minLng, maxLng));
+    }
+
+    // Keyset: rows strictly after (eventDate, id) in (eventDate ASC, id ASC) order
+    public static Specification<Event> after(LocalDateTime eventDate, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("eventDate"), eventDate),
+                cb.and(cb.equal(root.get("eventDate"), eventDate), cb.greaterThan(root.get("id"), id)));
+    }
+
+    // Loads the creator in the same query (skipped for count queries)
+    public static Specification<Event> fetchCreator() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("createdBy", JoinType.INNER);
+            }
+            return null;
+        };
+    }
+}
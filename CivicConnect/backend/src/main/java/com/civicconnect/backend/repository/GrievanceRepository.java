@@ -1,10 +1,40 @@
 package com.civicconnect.backend.repository;
 
 import com.civicconnect.backend.model.Grievance;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 
 public interface GrievanceRepository extends JpaRepository<Grievance, Long> {
     // This magic method fetches all grievances for a specific user
     List<Grievance> findByUserId(Long userId);
+
+    // Filter on the structured AI columns; any null parameter is ignored
+    @Query("SELECT g FROM Grievance g WHERE " +
+           "(:riskLevel IS NULL OR g.aiRiskLevel = :riskLevel) AND " +
+           "(:department IS NULL OR g.aiDepartment = :department) AND " +
+           "(:maxHours IS NULL OR g.aiEstimatedHours <= :maxHours) " +
+           "ORDER BY g.createdAt DESC")
+    List<Grievance> searchByAnalysis(@Param("riskLevel") String riskLevel,
+                                     @Param("department") String department,
+                                     @Param("maxHours") Integer maxHours,
+                                     Pageable pageable);
+
+    @Query("SELECT DISTINCT g FROM Grievance g JOIN g.aiRecommendedActions a " +
+           "WHERE LOWER(a) LIKE LOWER(CONCAT('%', :keyword, '%')) ORDER BY g.createdAt DESC")
+    List<Grievance> findByRecommendedActionContaining(@Param("keyword") String keyword, Pageable pageable);
+
+    // Rows are [riskLevel, department, count, avgHours]
+    @Query("SELECT g.aiRiskLevel, g.aiDepartment, COUNT(g), AVG(g.aiEstimatedHours) FROM Grievance g " +
+           "WHERE g.aiRiskLevel IS NOT NULL GROUP BY g.aiRiskLevel, g.aiDepartment")
+    List<Object[]> summarizeByRiskAndDepartment();
+
+    // Backfill: rows never parsed (or parsed before aiFieldsParsedAt existed and left without a risk
+    // level), keyset over id within a run
+    @Query("SELECT g FROM Grievance g WHERE g.id > :afterId AND g.aiAnalysisJson IS NOT NULL " +
+           "AND g.aiFieldsParsedAt IS NULL AND g.aiRiskLevel IS NULL ORDER BY g.id ASC")
+    List<Grievance> findUnstructuredAnalysisAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
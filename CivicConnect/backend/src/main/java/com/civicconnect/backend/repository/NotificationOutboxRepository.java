@@ -0,0 +1,41 @@
+package com.civicconnect.backend.repository;
+
+import com.civicconnect.backend.model.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    boolean existsByDedupeKey(String dedupeKey);
+
+    long countByStatus(String status);
+
+    // Due rows: pending and past their backoff, or stuck in SENDING after the owning relay died
+    @Query("SELECT o.id FROM NotificationOutbox o WHERE " +
+           "(o.status = 'PENDING' AND o.nextAttemptAt <= :now) OR (o.status = 'SENDING' AND o.leaseUntil < :now) " +
+           "ORDER BY o.id ASC")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Conditional claim: only rows nobody else has claimed in the meantime get our lease
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = 'SENDING', o.leaseOwner = :owner, o.leaseUntil = :until " +
+           "WHERE o.id IN :ids AND ((o.status = 'PENDING' AND o.nextAttemptAt <= :now) OR (o.status = 'SENDING' AND o.leaseUntil < :now))")
+    int claim(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+              @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    List<NotificationOutbox> findByLeaseOwnerAndStatus(String leaseOwner, String status);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = 'SENT', o.sentAt = :now, o.leaseOwner = NULL, o.leaseUntil = NULL " +
+           "WHERE o.id IN :ids AND o.leaseOwner = :owner")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
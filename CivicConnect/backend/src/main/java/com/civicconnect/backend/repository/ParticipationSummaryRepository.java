@@ -0,0 +1,55 @@
+package com.civicconnect.backend.repository;
+
+import com.civicconnect.backend.model.ParticipationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ParticipationSummaryRepository extends JpaRepository<ParticipationSummary, Long> {
+
+    // Applies one status transition's deltas atomically; 0 means the user has no summary row yet
+    @Modifying
+    @Query("UPDATE ParticipationSummary s SET s.registered = s.registered + :registered, " +
+           "s.waitlisted = s.waitlisted + :waitlisted, s.attended = s.attended + :attended, " +
+           "s.cancelled = s.cancelled + :cancelled WHERE s.userId IN :userIds")
+    int applyDelta(@Param("userIds") Collection<Long> userIds, @Param("registered") int registered,
+                   @Param("waitlisted") int waitlisted, @Param("attended") int attended,
+                   @Param("cancelled") int cancelled);
+
+    @Query("SELECT s.userId FROM ParticipationSummary s WHERE s.userId IN :userIds")
+    List<Long> findExistingUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Builds a missing row from the registrations table. Pending changes are flushed first so the
+    // row already reflects the transition being recorded.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO participation_summaries (user_id, registered, waitlisted, attended, cancelled) " +
+                   "SELECT u.id, " +
+                   "COALESCE(SUM(CASE WHEN r.status = 'REGISTERED' THEN 1 ELSE 0 END), 0), " +
+                   "COALESCE(SUM(CASE WHEN r.status = 'WAITLISTED' THEN 1 ELSE 0 END), 0), " +
+                   "COALESCE(SUM(CASE WHEN r.status = 'ATTENDED' THEN 1 ELSE 0 END), 0), " +
+                   "COALESCE(SUM(CASE WHEN r.status = 'CANCELLED' THEN 1 ELSE 0 END), 0) " +
+                   "FROM users u LEFT JOIN event_registrations r ON r.user_id = u.id " +
+                   "WHERE u.id = :userId GROUP BY u.id", nativeQuery = true)
+    int insertFromRegistrations(@Param("userId") Long userId);
+
+    // Startup repair: a row for every user, then all counts recomputed from the registrations table
+    @Modifying
+    @Query(value = "INSERT INTO participation_summaries (user_id, registered, waitlisted, attended, cancelled) " +
+                   "SELECT u.id, 0, 0, 0, 0 FROM users u " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM participation_summaries s WHERE s.user_id = u.id)", nativeQuery = true)
+    int insertMissing();
+
+    @Modifying
+    @Query("UPDATE ParticipationSummary s SET " +
+           "s.registered = (SELECT COUNT(r) FROM EventRegistration r WHERE r.user.id = s.userId AND r.status = 'REGISTERED'), " +
+           "s.waitlisted = (SELECT COUNT(r) FROM EventRegistration r WHERE r.user.id = s.userId AND r.status = 'WAITLISTED'), " +
+           "s.attended = (SELECT COUNT(r) FROM EventRegistration r WHERE r.user.id = s.userId AND r.status = 'ATTENDED'), " +
+           "s.cancelled = (SELECT COUNT(r) FROM EventRegistration r WHERE r.user.id = s.userId AND r.status = 'CANCELLED')")
+    int reconcileAll();
+}
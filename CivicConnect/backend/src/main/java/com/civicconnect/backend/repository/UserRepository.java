@@ -1,7 +1,14 @@
 package com.civicconnect.backend.repository;
 
+import com.civicconnect.backend.dto.AlertRecipient;
 import com.civicconnect.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +19,59 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Token revocation check (TokenRevocationCache): primary-key lookup of the role only
+    @Query("SELECT u.role FROM User u WHERE u.id = :id")
+    Optional<String> findRoleById(@Param("id") Long id);
+
+    // Keyset page of alert recipients (primary key index, no OFFSET scan)
+    @Query("SELECT new com.civicconnect.backend.dto.AlertRecipient(u.id, u.username, u.email, u.mobileNumber) " +
+           "FROM User u WHERE u.id > :afterId ORDER BY u.id ASC")
+    List<AlertRecipient> findRecipientsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.civicconnect.backend.dto.AlertRecipient(u.id, u.username, u.email, u.mobileNumber) " +
+           "FROM User u WHERE u.city IN :cities AND u.id > :afterId ORDER BY u.id ASC")
+    List<AlertRecipient> findRecipientsInCitiesAfter(@Param("cities") Collection<String> cities,
+                                                     @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.civicconnect.backend.dto.AlertRecipient(u.id, u.username, u.email, u.mobileNumber) " +
+           "FROM User u WHERE u.city = :city AND u.ward IN :wards AND u.id > :afterId ORDER BY u.id ASC")
+    List<AlertRecipient> findRecipientsInWardsAfter(@Param("city") String city, @Param("wards") Collection<String> wards,
+                                                    @Param("afterId") Long afterId, Pageable pageable);
+
+    // Users in the city who did not give a ward: a ward alert may concern them
+    @Query("SELECT new com.civicconnect.backend.dto.AlertRecipient(u.id, u.username, u.email, u.mobileNumber) " +
+           "FROM User u WHERE u.city = :city AND u.ward IS NULL AND u.id > :afterId ORDER BY u.id ASC")
+    List<AlertRecipient> findRecipientsInCityWithoutWardAfter(@Param("city") String city,
+                                                              @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.civicconnect.backend.dto.AlertRecipient(u.id, u.username, u.email, u.mobileNumber) " +
+           "FROM User u WHERE u.city IS NULL AND u.id > :afterId ORDER BY u.id ASC")
+    List<AlertRecipient> findRecipientsWithoutCityAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.civicconnect.backend.dto.AlertRecipient(u.id, u.username, u.email, u.mobileNumber) " +
+           "FROM User u WHERE u.geoCell IS NULL AND u.id > :afterId ORDER BY u.id ASC")
+    List<AlertRecipient> findRecipientsWithoutGeoCellAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Radius queries: the cell list / box narrows the scan via the index, then the distance check keeps
+    // only users inside the circle. Distance uses the equirectangular approximation in degrees
+    // (lngScaleSq = cos^2 of the centre latitude), accurate to well under 1% at city scale.
+    @Query("SELECT new com.civicconnect.backend.dto.AlertRecipient(u.id, u.username, u.email, u.mobileNumber) " +
+           "FROM User u WHERE u.geoCell IN :cells AND u.id > :afterId " +
+           "AND (u.latitude - :lat) * (u.latitude - :lat) + (u.longitude - :lng) * (u.longitude - :lng) * :lngScaleSq <= :radiusDegSq " +
+           "ORDER BY u.id ASC")
+    List<AlertRecipient> findRecipientsInCellsAfter(@Param("cells") Collection<String> cells,
+                                                    @Param("lat") double lat, @Param("lng") double lng,
+                                                    @Param("lngScaleSq") double lngScaleSq, @Param("radiusDegSq") double radiusDegSq,
+                                                    @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.civicconnect.backend.dto.AlertRecipient(u.id, u.username, u.email, u.mobileNumber) " +
+           "FROM User u WHERE u.latitude BETWEEN :minLat AND :maxLat AND u.longitude BETWEEN :minLng AND :maxLng " +
+           "AND (u.latitude - :lat) * (u.latitude - :lat) + (u.longitude - :lng) * (u.longitude - :lng) * :lngScaleSq <= :radiusDegSq " +
+           "AND u.id > :afterId ORDER BY u.id ASC")
+    List<AlertRecipient> findRecipientsInBoxAfter(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                                  @Param("minLng") double minLng, @Param("maxLng") double maxLng,
+                                                  @Param("lat") double lat, @Param("lng") double lng,
+                                                  @Param("lngScaleSq") double lngScaleSq, @Param("radiusDegSq") double radiusDegSq,
+                                                  @Param("afterId") Long afterId, Pageable pageable);
+}
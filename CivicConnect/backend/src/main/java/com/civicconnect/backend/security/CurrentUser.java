@@ -0,0 +1,59 @@
+package com.civicconnect.backend.security;
+
+import com.civicconnect.backend.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+// The caller of the current request, as verified by JwtRequestFilter. Controllers use this instead
+// of looking the user up by username: id, username and role come from the token, and reference()
+// hands services a User proxy that is only loaded if something reads its other fields (e.g. the
+// email address when a confirmation mail goes out). Proxies belong to the request's persistence
+// context (open-in-view), so they can be passed into @Transactional services.
+@Component
+@RequestScope
+public class CurrentUser {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private AuthenticatedUser principal;
+    private User reference;
+
+    public AuthenticatedUser getPrincipal() {
+        if (principal == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+                throw new RuntimeException("User not found");
+            }
+            principal = user;
+        }
+        return principal;
+    }
+
+    public Long getId() {
+        return getPrincipal().getId();
+    }
+
+    public String getUsername() {
+        return getPrincipal().getUsername();
+    }
+
+    public String getRole() {
+        return getPrincipal().getRole();
+    }
+
+    public boolean isAdmin() {
+        return getPrincipal().isAdmin();
+    }
+
+    public User reference() {
+        if (reference == null) {
+            reference = entityManager.getReference(User.class, getId());
+        }
+        return reference;
+    }
+}
@@ -1,6 +1,6 @@
 package com.civicconnect.backend.security;
 
-import com.civicconnect.backend.service.CustomUserDetailsService;
+import com.civicconnect.backend.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,21 +8,26 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+// Authenticates from the token's signed claims (uid, subject, role) instead of loading the user
+// on every request. The only DB access left is TokenRevocationCache's cached role check, plus a
+// one-off lookup for tokens issued before the uid claim existed.
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private JwtUtil jwtUtil;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private TokenRevocationCache revocationCache;
+
+    @Autowired
+    private UserRepository userRepository;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -30,20 +35,22 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
         String jwt = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt);
+        } else if (request.getRequestURI().endsWith("/stream") && request.getParameter("token") != null) {
+            // EventSource cannot send headers, so SSE endpoints also accept ?token=
+            jwt = request.getParameter("token");
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Invalid or expired tokens leave the request unauthenticated; protected routes answer 401/403
+            AuthenticatedUser user = resolve(jwtUtil.parseToken(jwt));
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (user != null && revocationCache.isActive(user.getId(), user.getRole())) {
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
+                        user, null, user.getAuthorities());
                 usernamePasswordAuthenticationToken
                         .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
@@ -51,4 +58,13 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Legacy tokens (no uid claim) are resolved by username until they expire
+    private AuthenticatedUser resolve(AuthenticatedUser claims) {
+        if (claims == null || claims.getUsername() == null) return null;
+        if (claims.getId() != null) return claims;
+        return userRepository.findByUsername(claims.getUsername())
+                .map(u -> new AuthenticatedUser(u.getId(), u.getUsername(), u.getRole()))
+                .orElse(null);
+    }
+}
@@ -1,11 +1,11 @@
 package com.civicconnect.backend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys; // <--- NEW IMPORT
 import org.springframework.stereotype.Component;
-import org.springframework.security.core.userdetails.UserDetails;
 
 import java.security.Key;
 import java.util.Date;
@@ -44,16 +44,27 @@ public class JwtUtil {
                 .getBody();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    public String generateToken(String username, String role) {
+    // uid and role are signed into the token so requests can be authenticated without a DB lookup
+    public String generateToken(Long userId, String username, String role) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put("uid", userId);
         claims.put("role", role);
         return createToken(claims, username);
     }
 
+    // Verifies signature and expiry in one parse. Returns null for an invalid or expired token;
+    // tokens issued before uid was added come back with a null id.
+    public AuthenticatedUser parseToken(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            Number uid = claims.get("uid", Number.class);
+            return new AuthenticatedUser(uid != null ? uid.longValue() : null, claims.getSubject(),
+                    claims.get("role", String.class));
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
@@ -63,9 +74,4 @@ public class JwtUtil {
                 .signWith(key, SignatureAlgorithm.HS256) // UPDATED: Use the secure key object
                 .compact();
     }
-
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.civicconnect.backend.security;
+
+import com.civicconnect.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revocation check for stateless tokens: a token stays valid only while its user still exists with
+// the role it was issued for. The answer is cached per user for civic.auth.revocation-ttl-ms, so a
+// busy user costs one primary-key lookup per TTL instead of one per request; deleting a user or
+// changing their role (directly in the database, there is no API for either) takes effect once
+// the cached answer expires, i.e. within civic.auth.revocation-ttl-ms.
+@Component
+public class TokenRevocationCache {
+
+    private static final int MAX_ENTRIES = 50_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${civic.auth.revocation-check:true}")
+    private boolean enabled;
+
+    @Value("${civic.auth.revocation-ttl-ms:60000}")
+    private long ttlMillis;
+
+    private record Entry(String role, long expiresAt) {
+    }
+
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    public boolean isActive(Long userId, String role) {
+        if (!enabled) return true;
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(userId);
+        if (entry == null || entry.expiresAt() < now) {
+            entry = new Entry(userRepository.findRoleById(userId).orElse(null), now + ttlMillis);
+            if (cache.size() >= MAX_ENTRIES) {
+                cache.values().removeIf(e -> e.expiresAt() < now);
+            }
+            cache.put(userId, entry);
+        }
+        return entry.role() != null && entry.role().equals(role);
+    }
+}
@@ -0,0 +1,247 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.AdmissionTicket;
+import com.civicconnect.backend.dto.RegistrationResultDto;
+import com.civicconnect.backend.repository.EventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Admission queue for flash sign-up events. Request threads only append a ticket to a lock-free
+// queue and return 202; a single drainer thread applies queued sign-ups to the DB in per-event
+// batches via EventService.registerBatch. DB work therefore grows with the number of batches,
+// not with the size of the spike.
+// The queue is per node: each node drains its own tickets, and registerBatch locks the event row,
+// so several nodes can admit to the same event without overselling it.
+@Service
+public class AdmissionQueueService {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Value("${civic.admission.batch-size:500}")
+    private int batchSize;
+
+    @Value("${civic.admission.max-pending:100000}")
+    private int maxPending;
+
+    @Value("${civic.admission.ticket-ttl-ms:600000}")
+    private long ticketTtlMillis;
+
+    @Value("${civic.admission.stream.timeout-ms:120000}")
+    private long streamTimeoutMillis;
+
+    @Value("${civic.admission.drain-interval-ms:100}")
+    private long drainIntervalMillis;
+
+    private final ConcurrentLinkedQueue<AdmissionTicket> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<String, AdmissionTicket> tickets = new ConcurrentHashMap<>();
+    // "eventId:userId" -> ticket, so repeated clicks while queued return the same ticket
+    private final Map<String, AdmissionTicket> pendingByUser = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> listeners = new ConcurrentHashMap<>();
+    // Flash-mode flags cached in memory so the hot path does not read the event row.
+    // Event.flashSignup is the source of truth; other nodes pick up changes on the next refresh.
+    private volatile Set<Long> flashEventIds = ConcurrentHashMap.newKeySet();
+    // Result pushes run off the drainer thread so a slow client cannot stall admissions
+    private final ExecutorService pushExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    // The drainer gets its own thread: a spike can keep it busy for a long time, and on the shared
+    // @Scheduled thread that would hold up the outbox relay, heartbeats, digests and reminders
+    private final ScheduledExecutorService drainExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "admission-drainer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile LocalDateTime lastEviction = LocalDateTime.now();
+
+    @PostConstruct
+    public void start() {
+        refreshFlashEvents();
+        drainExecutor.scheduleWithFixedDelay(this::drainSafely, drainIntervalMillis, drainIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainExecutor.shutdownNow();
+        pushExecutor.shutdownNow();
+    }
+
+    // Picks up flash-mode toggles made through another node
+    @Scheduled(fixedDelayString = "${civic.admission.flash-refresh-ms:30000}", initialDelayString = "${civic.admission.flash-refresh-ms:30000}")
+    public void refreshFlashEvents() {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ids.addAll(eventRepository.findFlashSignupIds());
+        flashEventIds = ids;
+    }
+
+    public boolean isFlashSignup(Long eventId) {
+        return flashEventIds.contains(eventId);
+    }
+
+    // Called by EventController after an event is created/updated
+    public void setFlashSignup(Long eventId, boolean enabled) {
+        if (enabled) flashEventIds.add(eventId);
+        else flashEventIds.remove(eventId);
+    }
+
+    public AdmissionTicket submit(Long eventId, Long userId) {
+        String key = eventId + ":" + userId;
+        AdmissionTicket existing = pendingByUser.get(key);
+        if (existing != null) return existing;
+
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw new RuntimeException("Registration queue is full. Please try again shortly.");
+        }
+        AdmissionTicket ticket = new AdmissionTicket();
+        ticket.setTicketId(UUID.randomUUID().toString());
+        ticket.setEventId(eventId);
+        ticket.setUserId(userId);
+
+        AdmissionTicket raced = pendingByUser.putIfAbsent(key, ticket);
+        if (raced != null) {
+            pending.decrementAndGet();
+            return raced;
+        }
+        tickets.put(ticket.getTicketId(), ticket);
+        queue.offer(ticket);
+        return ticket;
+    }
+
+    public AdmissionTicket getTicket(String ticketId) {
+        return tickets.get(ticketId);
+    }
+
+    public SseEmitter subscribe(AdmissionTicket ticket) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        if (ticket.isDone()) {
+            sendResult(emitter, ticket);
+            return emitter;
+        }
+        List<SseEmitter> emitters = listeners.computeIfAbsent(ticket.getTicketId(), id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        Runnable remove = () -> emitters.remove(emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        // The drainer may have completed the ticket before the emitter was registered
+        if (ticket.isDone()) {
+            listeners.remove(ticket.getTicketId(), emitters);
+            if (emitters.remove(emitter)) sendResult(emitter, ticket);
+        }
+        return emitter;
+    }
+
+    public int getQueueDepth() {
+        return pending.get();
+    }
+
+    // An exception escaping a fixed-delay task would cancel every later run
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (Exception e) {
+            System.err.println("❌ Admission drain failed: " + e.getMessage());
+        }
+    }
+
+    void drain() {
+        while (!queue.isEmpty()) {
+            List<AdmissionTicket> batch = new ArrayList<>(batchSize);
+            AdmissionTicket ticket;
+            while (batch.size() < batchSize && (ticket = queue.poll()) != null) {
+                batch.add(ticket);
+            }
+            pending.addAndGet(-batch.size());
+
+            // Group by event, keeping arrival order within each event
+            Map<Long, List<AdmissionTicket>> byEvent = new LinkedHashMap<>();
+            for (AdmissionTicket t : batch) {
+                byEvent.computeIfAbsent(t.getEventId(), id -> new ArrayList<>()).add(t);
+            }
+            byEvent.forEach(this::apply);
+        }
+        evictExpired();
+    }
+
+    private void apply(Long eventId, List<AdmissionTicket> batch) {
+        try {
+            List<Long> userIds = batch.stream().map(AdmissionTicket::getUserId).toList();
+            List<RegistrationResultDto> results = eventService.registerBatch(eventId, userIds);
+            for (int i = 0; i < batch.size(); i++) {
+                RegistrationResultDto result = results.get(i);
+                complete(batch.get(i), result.getStatus(), result.getWaitlistPosition(),
+                        "WAITLISTED".equals(result.getStatus())
+                                ? "Event is full. You have been added to the waitlist."
+                                : "Successfully registered as volunteer!");
+            }
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                System.err.println("❌ Admission failed for event " + eventId + ": " + e.getMessage());
+                complete(batch.get(0), "FAILED", null, e.getMessage());
+                return;
+            }
+            // One bad row rolls back the whole batch; retry each sign-up on its own so only
+            // the failing ticket is marked FAILED
+            System.err.println("⚠️ Admission batch failed for event " + eventId + ", retrying individually: " + e.getMessage());
+            for (AdmissionTicket ticket : batch) {
+                apply(eventId, List.of(ticket));
+            }
+        }
+    }
+
+    private void complete(AdmissionTicket ticket, String status, Integer position, String message) {
+        ticket.setWaitlistPosition(position);
+        ticket.setMessage(message);
+        ticket.setCompletedAt(LocalDateTime.now());
+        ticket.setStatus(status); // written last: isDone() readers see the other fields
+        pendingByUser.remove(ticket.getEventId() + ":" + ticket.getUserId(), ticket);
+
+        List<SseEmitter> emitters = listeners.remove(ticket.getTicketId());
+        if (emitters != null) {
+            emitters.forEach(emitter -> pushExecutor.execute(() -> sendResult(emitter, ticket)));
+        }
+    }
+
+    private void sendResult(SseEmitter emitter, AdmissionTicket ticket) {
+        try {
+            emitter.send(SseEmitter.event().name("result").data(ticket, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (Exception e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    // Completed tickets stay pollable for ticket-ttl-ms; swept at most every 10 seconds
+    private void evictExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        if (lastEviction.isAfter(now.minusSeconds(10))) return;
+        lastEviction = now;
+        LocalDateTime cutoff = now.minus(Duration.ofMillis(ticketTtlMillis));
+        tickets.values().removeIf(t -> t.getCompletedAt() != null && t.getCompletedAt().isBefore(cutoff));
+    }
+}
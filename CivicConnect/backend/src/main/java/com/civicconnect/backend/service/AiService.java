@@ -4,18 +4,35 @@ import com.civicconnect.backend.model.Grievance;
 import com.civicconnect.backend.repository.GrievanceRepository;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class AiService {
@@ -26,9 +43,26 @@ public class AiService {
     @Value("${gemini.api.key}")
     private String geminiApiKey;
 
+    private static final String GEMINI_BASE_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash";
+
+    private static final Pattern FIRST_NUMBER = Pattern.compile("\\d{1,6}");
+
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Gemini calls are pure I/O wait, so a virtual thread per call keeps Tomcat workers free
+    private final ExecutorService geminiExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // In-flight upstream calls keyed by grievance id: concurrent admins share one Gemini round trip
+    private final Map<Long, CompletableFuture<String>> inFlightExplanations = new ConcurrentHashMap<>();
+    private final Map<Long, ExplanationStream> inFlightStreams = new ConcurrentHashMap<>();
+
+    // Interrupts in-flight Gemini calls and subscriber drains on shutdown
+    @PreDestroy
+    public void shutdown() {
+        geminiExecutor.shutdownNow();
+    }
+
     // ✅ FEATURE 1: Auto-Action Plan (Triggered on Submit)
     @Async
     public void analyzeGrievance(Long grievanceId) {
@@ -36,7 +70,7 @@ public class AiService {
             Grievance grievance = grievanceRepository.findById(grievanceId).orElseThrow();
             
             // ✅ UPDATED: Using gemini-2.5-flash
-            String url = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent?key=" + geminiApiKey;
+            String url = GEMINI_BASE_URL + ":generateContent?key=" + geminiApiKey;
 
             String promptText = String.format(
                 "Analyze this grievance. Reason about the issue like a municipal officer.\n" +
@@ -67,6 +101,7 @@ public class AiService {
             grievance.setCategory(category);
             grievance.setPriority(actionPlan.path("risk_level").asText("LOW").toUpperCase());
             grievance.setAiAnalysisJson(cleanJson); 
+            applyActionPlanFields(grievance, actionPlan);
 
             grievanceRepository.save(grievance);
             System.out.println("✅ Feature 1 (Action Plan) Completed for ID: " + grievanceId);
@@ -78,28 +113,46 @@ public class AiService {
         }
     }
 
+    // Copies the queryable parts of the action plan into typed, indexed columns.
+    // Shared by the live analysis and the backfill job so both parse identically.
+    public void applyActionPlanFields(Grievance grievance, JsonNode actionPlan) {
+        String riskLevel = actionPlan.path("risk_level").asText("").trim().toUpperCase();
+        String department = actionPlan.path("probable_department").asText("").trim();
+
+        grievance.setAiRiskLevel(riskLevel.isEmpty() ? null : riskLevel);
+        grievance.setAiDepartment(department.isEmpty() ? null : department);
+        grievance.setAiEstimatedHours(parseHours(actionPlan.path("estimated_resolution_time_hours")));
+
+        List<String> actions = new ArrayList<>();
+        for (JsonNode action : actionPlan.path("recommended_actions")) {
+            String text = action.asText("").trim();
+            if (!text.isEmpty()) actions.add(text.length() > 500 ? text.substring(0, 500) : text);
+        }
+        // Replace rather than mutate: the async caller holds a detached entity whose collection is not loaded
+        grievance.setAiRecommendedActions(actions);
+        grievance.setAiFieldsParsedAt(LocalDateTime.now());
+    }
+
+    public void applyActionPlanFields(Grievance grievance, String actionPlanJson) throws IOException {
+        applyActionPlanFields(grievance, objectMapper.readTree(actionPlanJson));
+    }
+
+    // Gemini returns the estimate as a string ("48", "24-48", "about 72 hours"); keep the first number
+    private Integer parseHours(JsonNode node) {
+        if (node.isNumber()) return node.asInt();
+        Matcher matcher = FIRST_NUMBER.matcher(node.asText(""));
+        return matcher.find() ? Integer.valueOf(matcher.group()) : null;
+    }
+
     // ✅ FEATURE 2: Admin Explanation (Called via Browser)
     public String explainGrievanceForAdmin(Long grievanceId) {
         try {
             Grievance grievance = grievanceRepository.findById(grievanceId).orElseThrow();
             
             // ✅ UPDATED: Using gemini-2.5-flash
-            String url = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent?key=" + geminiApiKey;
+            String url = GEMINI_BASE_URL + ":generateContent?key=" + geminiApiKey;
 
-            String promptText = String.format(
-                "Read this complaint and explain it to a busy admin.\n" +
-                "Complaint: \"%s\"\n\n" +
-                "Output strictly valid JSON:\n" +
-                "{\n" +
-                "  \"plain_english_summary\": \"Simple 1-sentence explanation\",\n" +
-                "  \"key_problem\": \"The core operational issue\",\n" +
-                "  \"what_admin_should_do_next\": \"Immediate next step\",\n" +
-                "  \"possible_consequences_if_ignored\": \"Risk assessment\"\n" +
-                "}",
-                grievance.getDescription()
-            );
-
-            String jsonResponse = callGemini(url, promptText);
+            String jsonResponse = callGemini(url, buildExplainPrompt(grievance));
             return extractJson(jsonResponse);
 
         } catch (HttpClientErrorException e) {
@@ -110,10 +163,104 @@ public class AiService {
         }
     }
 
-    private String callGemini(String url, String prompt) {
+    // FEATURE 2 (non-blocking): the request thread is released while Gemini works.
+    // Admins asking about the same grievance at the same time join the call already in flight.
+    public CompletableFuture<String> explainGrievanceForAdminAsync(Long grievanceId) {
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlightExplanations.putIfAbsent(grievanceId, created);
+        if (existing != null) {
+            return existing;
+        }
+        geminiExecutor.execute(() -> {
+            try {
+                created.complete(explainGrievanceForAdmin(grievanceId));
+            } finally {
+                inFlightExplanations.remove(grievanceId, created);
+            }
+        });
+        return created;
+    }
+
+    // FEATURE 2 (streaming): relays Gemini chunks to the browser as they arrive.
+    // Late subscribers for the same grievance get the text produced so far, then the live tail.
+    public SseEmitter streamGrievanceExplanation(Long grievanceId) {
+        SseEmitter emitter = new SseEmitter(120_000L);
+        while (true) {
+            ExplanationStream created = new ExplanationStream(geminiExecutor);
+            ExplanationStream existing = inFlightStreams.putIfAbsent(grievanceId, created);
+            if (existing == null) {
+                created.subscribe(emitter);
+                geminiExecutor.execute(() -> runExplanationStream(grievanceId, created));
+                return emitter;
+            }
+            if (existing.subscribe(emitter)) {
+                return emitter;
+            }
+            // That stream finished between lookup and subscribe; drop it and start a fresh one
+            inFlightStreams.remove(grievanceId, existing);
+        }
+    }
+
+    private void runExplanationStream(Long grievanceId, ExplanationStream stream) {
+        try {
+            Grievance grievance = grievanceRepository.findById(grievanceId).orElseThrow();
+            String url = GEMINI_BASE_URL + ":streamGenerateContent?alt=sse&key=" + geminiApiKey;
+            streamGemini(url, buildExplainPrompt(grievance), stream::publish);
+            stream.complete(null);
+        } catch (HttpClientErrorException e) {
+            stream.complete("Google API Error: " + e.getStatusCode());
+        } catch (Exception e) {
+            stream.complete("Internal Error: " + e.getMessage());
+        } finally {
+            inFlightStreams.remove(grievanceId, stream);
+        }
+    }
+
+    private String buildExplainPrompt(Grievance grievance) {
+        return String.format(
+            "Read this complaint and explain it to a busy admin.\n" +
+            "Complaint: \"%s\"\n\n" +
+            "Output strictly valid JSON:\n" +
+            "{\n" +
+            "  \"plain_english_summary\": \"Simple 1-sentence explanation\",\n" +
+            "  \"key_problem\": \"The core operational issue\",\n" +
+            "  \"what_admin_should_do_next\": \"Immediate next step\",\n" +
+            "  \"possible_consequences_if_ignored\": \"Risk assessment\"\n" +
+            "}",
+            grievance.getDescription()
+        );
+    }
+
+    private Map<String, Object> buildRequestBody(String prompt) {
         Map<String, Object> contentPart = Map.of("text", prompt);
         Map<String, Object> content = Map.of("parts", List.of(contentPart));
-        Map<String, Object> requestBody = Map.of("contents", List.of(content));
+        return Map.of("contents", List.of(content));
+    }
+
+    // Reads the alt=sse response line by line and hands each text part over as soon as it is parsed
+    private void streamGemini(String url, String prompt, Consumer<String> onChunk) {
+        restTemplate.execute(url, HttpMethod.POST, request -> {
+            request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            objectMapper.writeValue(request.getBody(), buildRequestBody(prompt));
+        }, response -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.startsWith("data:")) continue;
+                    JsonNode parts = objectMapper.readTree(line.substring(5).trim())
+                            .path("candidates").path(0).path("content").path("parts");
+                    for (JsonNode part : parts) {
+                        String text = part.path("text").asText("");
+                        if (!text.isEmpty()) onChunk.accept(text);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private String callGemini(String url, String prompt) {
+        Map<String, Object> requestBody = buildRequestBody(prompt);
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -134,4 +281,54 @@ public class AiService {
         if (start == -1 || end == -1) return "{}";
         return rawText.substring(start, end + 1);
     }
-}
\ No newline at end of file
+
+    // Fan-out state for one upstream stream: chunks seen so far plus the clients listening to it.
+    // The lock only orders events into each subscriber's queue; the blocking emitter.send runs in
+    // that subscriber's own drain task, so a slow client holds up neither Gemini nor other clients.
+    private static class ExplanationStream {
+        private final Executor executor;
+        private final List<String> chunks = new ArrayList<>();
+        private final List<SseSubscriber> subscribers = new ArrayList<>();
+        private boolean finished = false;
+
+        ExplanationStream(Executor executor) {
+            this.executor = executor;
+        }
+
+        synchronized boolean subscribe(SseEmitter emitter) {
+            if (finished) return false;
+            // Unbounded: an explanation is a handful of chunks; closed subscribers are pruned on publish
+            SseSubscriber subscriber = new SseSubscriber(emitter, executor, Integer.MAX_VALUE, closed -> { });
+            for (String chunk : chunks) {
+                subscriber.send(SseEmitter.event().name("chunk").data(chunk));
+            }
+            subscribers.add(subscriber);
+            emitter.onCompletion(() -> unsubscribe(subscriber));
+            emitter.onTimeout(() -> unsubscribe(subscriber));
+            return true;
+        }
+
+        synchronized void publish(String chunk) {
+            chunks.add(chunk);
+            subscribers.removeIf(SseSubscriber::isClosed);
+            for (SseSubscriber subscriber : subscribers) {
+                subscriber.send(SseEmitter.event().name("chunk").data(chunk));
+            }
+        }
+
+        synchronized void complete(String error) {
+            finished = true;
+            for (SseSubscriber subscriber : subscribers) {
+                subscriber.sendAndComplete(error != null
+                        ? SseEmitter.event().name("error").data(error)
+                        : SseEmitter.event().name("done").data(String.join("", chunks)));
+            }
+            subscribers.clear();
+        }
+
+        private synchronized void unsubscribe(SseSubscriber subscriber) {
+            subscriber.close();
+            subscribers.remove(subscriber);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.AlertRecipient;
+import com.civicconnect.backend.dto.BroadcastProgressDto;
+import com.civicconnect.backend.model.Alert;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Streams alert recipients page by page into bounded per-channel queues.
+// The producer blocks when a queue is full, so a slow channel (SMS) throttles the scan instead of
+// buffering the whole user table; each channel drains its queue with its own pool of virtual threads.
+@Service
+public class AlertFanoutService {
+
+    @Value("${civic.alerts.fanout.page-size:1000}")
+    private int pageSize;
+
+    @Value("${civic.alerts.fanout.queue-capacity:5000}")
+    private int queueCapacity;
+
+    @Value("${civic.alerts.fanout.progress-log-seconds:5}")
+    private int progressLogSeconds;
+
+    @Value("${civic.alerts.fanout.history-size:50}")
+    private int historySize;
+
+    private static final AlertRecipient END_OF_STREAM = new AlertRecipient();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Broadcast> broadcasts = new ConcurrentHashMap<>();
+
+    // Keyset pager: returns up to 'limit' recipients with id > afterId, ordered by id
+    @FunctionalInterface
+    public interface RecipientSource {
+        List<AlertRecipient> nextPage(Long afterId, int limit);
+    }
+
+    public record Channel(String name, int workers, Predicate<AlertRecipient> accepts, Consumer<AlertRecipient> sender) {
+    }
+
+    public BroadcastProgressDto start(Alert alert, RecipientSource source, List<Channel> channels) {
+        pruneHistory();
+        Broadcast broadcast = new Broadcast(alert.getId(), channels, queueCapacity);
+        broadcasts.put(alert.getId(), broadcast);
+        executor.execute(() -> run(broadcast, source));
+        return broadcast.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public BroadcastProgressDto getProgress(Long alertId) {
+        Broadcast broadcast = broadcasts.get(alertId);
+        return broadcast != null ? broadcast.snapshot() : null;
+    }
+
+    public List<BroadcastProgressDto> getAllProgress() {
+        return broadcasts.values().stream()
+                .sorted(Comparator.comparing((Broadcast b) -> b.startedAt).reversed())
+                .map(Broadcast::snapshot)
+                .toList();
+    }
+
+    private void run(Broadcast broadcast, RecipientSource source) {
+        List<Future<?>> workers = new ArrayList<>();
+        for (ChannelState channel : broadcast.channels) {
+            for (int i = 0; i < channel.spec.workers(); i++) {
+                workers.add(executor.submit(() -> drain(channel)));
+            }
+        }
+        Future<?> reporter = executor.submit(() -> reportProgress(broadcast));
+
+        try {
+            Long lastId = 0L;
+            while (true) {
+                List<AlertRecipient> page = source.nextPage(lastId, pageSize);
+                if (page.isEmpty()) break;
+                for (AlertRecipient recipient : page) {
+                    for (ChannelState channel : broadcast.channels) {
+                        if (channel.spec.accepts().test(recipient)) {
+                            channel.queue.put(recipient); // backpressure: blocks while the channel is saturated
+                            channel.queued.incrementAndGet();
+                        }
+                    }
+                }
+                broadcast.scanned.addAndGet(page.size());
+                lastId = page.get(page.size() - 1).getId();
+                if (page.size() < pageSize) break;
+            }
+            broadcast.status = "COMPLETED";
+        } catch (Exception e) {
+            broadcast.status = "FAILED";
+            System.err.println("❌ Alert fan-out failed for alert " + broadcast.alertId + ": " + e.getMessage());
+        } finally {
+            for (ChannelState channel : broadcast.channels) {
+                for (int i = 0; i < channel.spec.workers(); i++) {
+                    putQuietly(channel.queue, END_OF_STREAM);
+                }
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (Exception ignored) {
+                    // worker failures are already counted per message
+                }
+            }
+            broadcast.finishedAt = LocalDateTime.now();
+            reporter.cancel(true);
+            System.out.println("✅ Alert " + broadcast.alertId + " fan-out " + broadcast.status + ": " + broadcast.snapshot());
+        }
+    }
+
+    private void drain(ChannelState channel) {
+        while (true) {
+            AlertRecipient recipient;
+            try {
+                recipient = channel.queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (recipient == END_OF_STREAM) return;
+            try {
+                channel.spec.sender().accept(recipient);
+                channel.sent.incrementAndGet();
+            } catch (Exception e) {
+                channel.failed.incrementAndGet();
+                System.err.println("Failed to " + channel.spec.name() + " user " + recipient.getId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void reportProgress(Broadcast broadcast) {
+        try {
+            while (broadcast.finishedAt == null) {
+                Thread.sleep(Duration.ofSeconds(progressLogSeconds));
+                System.out.println("📣 Alert " + broadcast.alertId + " fan-out progress: " + broadcast.snapshot());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void putQuietly(BlockingQueue<AlertRecipient> queue, AlertRecipient item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void pruneHistory() {
+        if (broadcasts.size() < historySize) return;
+        broadcasts.values().stream()
+                .filter(b -> b.finishedAt != null)
+                .sorted(Comparator.comparing((Broadcast b) -> b.finishedAt))
+                .limit(broadcasts.size() - historySize + 1L)
+                .forEach(b -> broadcasts.remove(b.alertId));
+    }
+
+    private static class ChannelState {
+        private final Channel spec;
+        private final BlockingQueue<AlertRecipient> queue;
+        private final AtomicLong queued = new AtomicLong();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+
+        ChannelState(Channel spec, int capacity) {
+            this.spec = spec;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+
+    private static class Broadcast {
+        private final Long alertId;
+        private final List<ChannelState> channels = new ArrayList<>();
+        private final AtomicLong scanned = new AtomicLong();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private volatile LocalDateTime finishedAt;
+        private volatile String status = "RUNNING";
+
+        Broadcast(Long alertId, List<Channel> specs, int capacity) {
+            this.alertId = alertId;
+            for (Channel spec : specs) {
+                channels.add(new ChannelState(spec, capacity));
+            }
+        }
+
+        BroadcastProgressDto snapshot() {
+            BroadcastProgressDto dto = new BroadcastProgressDto();
+            double elapsed = (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+            dto.setAlertId(alertId);
+            dto.setStatus(finishedAt == null ? "RUNNING" : status);
+            dto.setRecipientsScanned(scanned.get());
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setElapsedSeconds(Math.round(elapsed * 100.0) / 100.0);
+            for (ChannelState channel : channels) {
+                BroadcastProgressDto.ChannelProgress progress = new BroadcastProgressDto.ChannelProgress();
+                progress.setQueued(channel.queued.get());
+                progress.setSent(channel.sent.get());
+                progress.setFailed(channel.failed.get());
+                progress.setBacklog(channel.queue.size());
+                progress.setThroughputPerSecond(elapsed > 0 ? Math.round(channel.sent.get() / elapsed * 100.0) / 100.0 : 0);
+                dto.getChannels().put(channel.spec.name(), progress);
+            }
+            return dto;
+        }
+    }
+}
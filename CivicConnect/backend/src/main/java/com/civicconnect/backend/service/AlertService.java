@@ -1,21 +1,25 @@
 package com.civicconnect.backend.service;
 
+import com.civicconnect.backend.dto.AlertRecipient;
+import com.civicconnect.backend.dto.BroadcastProgressDto;
 import com.civicconnect.backend.model.Alert;
-import com.civicconnect.backend.model.User;
 import com.civicconnect.backend.repository.AlertRepository;
-import com.civicconnect.backend.repository.UserRepository;
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
-import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class AlertService {
@@ -24,41 +28,51 @@ public class AlertService {
     private AlertRepository alertRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private JavaMailSender mailSender;
 
     @Autowired
-    private JavaMailSender mailSender;
+    private AlertFanoutService alertFanoutService;
 
-    @Value("${twilio.account-sid}")
-    private String twilioSid;
+    @Autowired
+    private AlertTargetingService alertTargetingService;
 
-    @Value("${twilio.auth-token}")
-    private String twilioToken;
+    @Autowired
+    private SmsDispatcher smsDispatcher;
 
-    @Value("${twilio.phone-number}")
-    private String twilioPhoneNumber;
+    @Autowired
+    private PhoneNumberNormalizer phoneNumberNormalizer;
+
+    @Autowired
+    private NotificationTemplateEngine templateEngine;
+
+    @Autowired
+    private AlertStreamHub alertStreamHub;
+
+    @Value("${civic.alerts.version-refresh-ms:5000}")
+    private long versionRefreshMillis;
+
+    private final AtomicLong latestAlertId = new AtomicLong(0);
+    private volatile long versionCheckedAt = 0;
 
     @Value("${spring.mail.username}")
     private String myEmail;
 
-    @PostConstruct
-    public void initTwilio() {
-        try {
-            if (twilioSid != null && !twilioSid.startsWith("ACXXX")) {
-                Twilio.init(twilioSid, twilioToken);
-                System.out.println("✅ Twilio Initialized");
-            } else {
-                System.out.println("⚠️ Twilio credentials not configured. SMS will be skipped.");
-            }
-        } catch (Exception e) {
-            System.err.println("❌ Twilio Init Failed: " + e.getMessage());
-        }
-    }
+    @Value("${civic.alerts.fanout.email-workers:16}")
+    private int emailWorkers;
+
+    // Enough workers to keep the dispatcher's concurrency busy; pacing itself happens in SmsDispatcher
+    @Value("${civic.alerts.fanout.sms-workers:20}")
+    private int smsWorkers;
 
     public Alert createAlert(Alert alert) {
         Alert savedAlert = alertRepository.save(alert);
+        latestAlertId.accumulateAndGet(savedAlert.getId(), Math::max);
+        versionCheckedAt = System.currentTimeMillis();
 
-        // Broadcast asynchronously to not block the response
+        // Push to connected browsers first; that is cheap and does not wait for email/SMS
+        alertStreamHub.publish(savedAlert);
+
+        // Hand off to the fan-out pipeline; it runs on its own threads so the response is not blocked
         broadcastAlert(savedAlert);
 
         return savedAlert;
@@ -68,62 +82,98 @@ public class AlertService {
         return alertRepository.findAllByOrderByCreatedAtDesc();
     }
 
-    @Async
-    public void broadcastAlert(Alert alert) {
-        List<User> users = userRepository.findAll();
-        for (User user : users) {
-            // 1. Send Email
-            try {
-                sendEmail(user.getEmail(), alert);
-            } catch (Exception e) {
-                System.err.println("Failed to email " + user.getEmail());
-            }
-
-            // 2. Send SMS (Only if Twilio configured)
-            if (twilioSid != null && !twilioSid.startsWith("ACXXX")) {
-                try {
-                    sendSms(user.getMobileNumber(), alert);
-                } catch (Exception e) {
-                    System.err.println("Failed to SMS " + user.getMobileNumber() + ": " + e.getMessage());
-                }
-            }
+    // First load (no 'since'): the newest 'limit' alerts, newest first.
+    // With 'since' (an alert id): alerts after it in id order, at most 'limit'; the client pages
+    // forward by passing the largest id it has received.
+    public List<Alert> getAlerts(Long since, Integer limit) {
+        if (since == null && limit == null) {
+            return getAllAlerts();
         }
+        Pageable page = PageRequest.of(0, limit != null ? Math.max(1, Math.min(limit, 500)) : 500);
+        return since != null
+                ? alertRepository.findByIdGreaterThanOrderByIdAsc(since, page)
+                : alertRepository.findAllByOrderByIdDesc(page);
     }
 
-    private void sendEmail(String toParams, Alert alert) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(myEmail);
-        message.setTo(toParams);
-        message.setSubject("CivicConnect Alert: " + alert.getTitle());
+    // Alerts are append-only, so the newest id is a complete version stamp for the feed. It is kept in
+    // memory (updated on create) and re-read from the DB at most every refresh interval, to pick up
+    // alerts created on other nodes; a poll answered with 304 therefore costs no query.
+    public long getLatestAlertId() {
+        long now = System.currentTimeMillis();
+        if (now - versionCheckedAt > versionRefreshMillis) {
+            versionCheckedAt = now;
+            long dbLatest = alertRepository.findTopByOrderByIdDesc().map(Alert::getId).orElse(0L);
+            latestAlertId.accumulateAndGet(dbLatest, Math::max);
+        }
+        return latestAlertId.get();
+    }
+
+    public SseEmitter subscribe() {
+        return alertStreamHub.subscribe();
+    }
+
+    public BroadcastProgressDto broadcastAlert(Alert alert) {
+        // Everything except the recipient's name is the same for every message: render it once here
         String alertTime = alert.getCreatedAt().toString().replace("T", " ");
-        message.setText("URGENT ALERT\n\n" +
-                "Severity: " + alert.getSeverity() + "\n" +
-                "City: " + (alert.getCity() != null ? alert.getCity() : "All Regions") + "\n" +
-                "Time: " + alertTime + "\n\n" +
-                alert.getMessage() + "\n\n" +
-                "- CivicConnect Admin Team");
-        mailSender.send(message);
+        Map<String, Object> shared = new HashMap<>();
+        shared.put("title", alert.getTitle());
+        shared.put("severity", alert.getSeverity());
+        shared.put("message", alert.getMessage());
+        shared.put("time", alertTime);
+        shared.put("city", alert.getCity() != null ? alert.getCity() : "All Regions");
+        NotificationTemplateEngine.PreparedMessage emailTemplate = templateEngine.prepare("alert", shared);
+
+        shared.put("city", alert.getCity() != null ? alert.getCity() : "General");
+        String smsBody = templateEngine.render("alert-sms", shared).text();
+
+        List<AlertFanoutService.Channel> channels = new ArrayList<>();
+        channels.add(new AlertFanoutService.Channel("email", emailWorkers,
+                r -> r.getEmail() != null && !r.getEmail().isBlank(),
+                r -> sendEmail(r, emailTemplate)));
+
+        // SMS only if a provider is configured
+        if (smsDispatcher.isEnabled()) {
+            channels.add(new AlertFanoutService.Channel("sms", smsWorkers,
+                    r -> r.getMobileNumber() != null && !r.getMobileNumber().isBlank(),
+                    r -> sendSms(r.getMobileNumber(), smsBody)));
+        }
+
+        // Users in the alert's area (city / ward / radius) plus users with no location, via the recipient index
+        return alertFanoutService.start(alert, alertTargetingService.resolveRecipients(alert), channels);
+    }
+
+    public BroadcastProgressDto getBroadcastProgress(Long alertId) {
+        return alertFanoutService.getProgress(alertId);
     }
 
-    private void sendSms(String toParams, Alert alert) {
-        // Basic formatting to ensure E.164 format if possible,
-        // assumes users stored numbers with country code or we default to India (+91)
-        // if missing
-        String formattedNumber = toParams.trim();
-        if (!formattedNumber.startsWith("+")) {
-            formattedNumber = "+91" + formattedNumber; // Defaulting to India for this use case
+    public List<BroadcastProgressDto> getAllBroadcastProgress() {
+        return alertFanoutService.getAllProgress();
+    }
+
+    private void sendEmail(AlertRecipient recipient, NotificationTemplateEngine.PreparedMessage template) {
+        NotificationTemplateEngine.RenderedMessage rendered = template.render(Map.of("username", recipient.getUsername()));
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom(myEmail);
+            helper.setTo(recipient.getEmail());
+            helper.setSubject(rendered.subject());
+            helper.setText(rendered.text(), rendered.html());
+            mailSender.send(message);
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e.getMessage(), e);
         }
+    }
 
-        String alertTime = alert.getCreatedAt().toString().replace("T", " ");
-        String body = "ALERT [" + alert.getSeverity() + "]\n" +
-                "City: " + (alert.getCity() != null ? alert.getCity() : "General") + "\n" +
-                alert.getTitle() + "\n" +
-                alert.getMessage() + "\n" +
-                "Time: " + alertTime;
-
-        Message.creator(
-                new PhoneNumber(formattedNumber),
-                new PhoneNumber(twilioPhoneNumber),
-                body).create();
+    private void sendSms(String toParams, String body) {
+        // Numbers are stored as E.164 since registration; only older rows still need converting
+        String formattedNumber = toParams.startsWith("+") ? toParams : phoneNumberNormalizer.toE164(toParams);
+
+        // Blocks this fan-out worker until the paced dispatcher has sent it (backpressure)
+        smsDispatcher.sendBlocking(formattedNumber, body);
+    }
+
+    public Map<String, Object> getSmsStats() {
+        return smsDispatcher.getStats();
     }
 }
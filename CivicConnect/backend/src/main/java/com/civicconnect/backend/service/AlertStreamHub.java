@@ -0,0 +1,87 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.model.Alert;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Broadcast hub for the live alert feed. Connections are async servlet requests, so an idle
+// subscriber costs a map entry and a socket, not a thread. Each alert is serialized once; publish
+// and the heartbeat only enqueue it on every subscriber's SseSubscriber queue, and each client is
+// written by its own virtual-thread drain task, so one slow socket delays nobody else.
+@Service
+public class AlertStreamHub {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Browsers reconnect automatically (EventSource), so a finite timeout just recycles stale sockets
+    @Value("${civic.alerts.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    // A client further behind than this is dropped and left to reconnect
+    @Value("${civic.alerts.stream.max-pending:100}")
+    private int maxPending;
+
+    private final Set<SseSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        SseSubscriber subscriber = new SseSubscriber(emitter, executor, maxPending, subscribers::remove);
+        Runnable remove = () -> {
+            subscriber.close();
+            subscribers.remove(subscriber);
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        subscribers.add(subscriber);
+        subscriber.send(SseEmitter.event().name("connected").data("ok"));
+        return emitter;
+    }
+
+    public void publish(Alert alert) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(alert);
+        } catch (Exception e) {
+            System.err.println("Failed to serialize alert " + alert.getId() + ": " + e.getMessage());
+            return;
+        }
+        // One builder per client: building an SseEventBuilder appends to it, so it cannot be shared
+        for (SseSubscriber subscriber : subscribers) {
+            subscriber.send(SseEmitter.event()
+                    .id(String.valueOf(alert.getId()))
+                    .name("alert")
+                    .data(payload, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // Comment frames keep proxies from closing idle connections and flush out dead clients
+    @Scheduled(fixedDelayString = "${civic.alerts.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (SseSubscriber subscriber : subscribers) {
+            subscriber.send(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+}
@@ -0,0 +1,177 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.AlertRecipient;
+import com.civicconnect.backend.model.Alert;
+import com.civicconnect.backend.model.User;
+import com.civicconnect.backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Resolves which users an alert reaches, using the users (city, ward, id) and (geo_cell, id) indexes.
+// Widening for severe alerts:
+//   ward alert      -> whole city
+//   city alert      -> city + configured neighbouring cities
+//   point + radius  -> one extra ring of grid cells around the circle
+// Users who never gave a location (everyone registered before targeting existed) cannot be placed,
+// so they still receive every alert, as with the old broadcast; likewise a ward alert also reaches
+// users in the city who gave no ward, and a radius alert users without coordinates.
+@Service
+public class AlertTargetingService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Comma separated severities that reach neighbouring areas, e.g. "CRITICAL" or "CRITICAL,HIGH"
+    @Value("${civic.alerts.targeting.widen-severities:CRITICAL}")
+    private String widenSeveritiesConfig;
+
+    // Format: "Navi Mumbai=Mumbai|Thane;Pune=Pimpri Chinchwad"
+    @Value("${civic.alerts.targeting.neighbouring-cities:}")
+    private String neighbouringCitiesConfig;
+
+    // Upper bound on IN-list size for radius alerts; larger areas use a latitude/longitude range query
+    @Value("${civic.alerts.targeting.max-cells:400}")
+    private int maxCells;
+
+    @Value("${civic.alerts.targeting.include-unlocated:true}")
+    private boolean includeUnlocated;
+
+    private Set<String> widenSeverities = Set.of();
+    private final Map<String, Set<String>> neighbouringCities = new HashMap<>();
+
+    @PostConstruct
+    public void loadConfig() {
+        widenSeverities = Arrays.stream(widenSeveritiesConfig.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(String::toUpperCase)
+                .collect(Collectors.toSet());
+
+        for (String entry : neighbouringCitiesConfig.split(";")) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2 || User.normalizeArea(parts[0]) == null) continue;
+            Set<String> neighbours = Arrays.stream(parts[1].split("\\|"))
+                    .map(User::normalizeArea)
+                    .filter(n -> n != null)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            neighbouringCities.put(User.normalizeArea(parts[0]), neighbours);
+        }
+    }
+
+    public AlertFanoutService.RecipientSource resolveRecipients(Alert alert) {
+        boolean widen = alert.getSeverity() != null && widenSeverities.contains(alert.getSeverity().toUpperCase());
+
+        if (alert.getLatitude() != null && alert.getLongitude() != null) {
+            double radiusKm = alert.getRadiusKm() != null && alert.getRadiusKm() > 0 ? alert.getRadiusKm() : 5.0;
+            return resolveRadius(alert.getLatitude(), alert.getLongitude(), radiusKm, widen ? 1 : 0);
+        }
+
+        String city = User.normalizeArea(alert.getCity());
+        if (city == null) {
+            // No area given: city-wide "All Regions" broadcast, as before
+            return (afterId, limit) -> userRepository.findRecipientsAfter(afterId, PageRequest.of(0, limit));
+        }
+
+        AlertFanoutService.RecipientSource withoutCity =
+                (afterId, limit) -> userRepository.findRecipientsWithoutCityAfter(afterId, PageRequest.of(0, limit));
+
+        String ward = User.normalizeArea(alert.getWard());
+        if (ward != null && !widen) {
+            Set<String> wards = Set.of(ward);
+            AlertFanoutService.RecipientSource inWard =
+                    (afterId, limit) -> userRepository.findRecipientsInWardsAfter(city, wards, afterId, PageRequest.of(0, limit));
+            if (!includeUnlocated) return inWard;
+            return union(union(inWard,
+                    (afterId, limit) -> userRepository.findRecipientsInCityWithoutWardAfter(city, afterId, PageRequest.of(0, limit))),
+                    withoutCity);
+        }
+
+        Set<String> cities = new LinkedHashSet<>();
+        cities.add(city);
+        // A widened ward alert covers its own city; a widened city alert also covers the neighbours
+        if (widen && ward == null) {
+            cities.addAll(neighbouringCities.getOrDefault(city, Set.of()));
+        }
+        AlertFanoutService.RecipientSource inCities =
+                (afterId, limit) -> userRepository.findRecipientsInCitiesAfter(cities, afterId, PageRequest.of(0, limit));
+        return includeUnlocated ? union(inCities, withoutCity) : inCities;
+    }
+
+    // Grid cells (see User.geoCell) whose area intersects the circle's bounding box, plus 'extraRings' rings.
+    // Very large areas would make the IN list unwieldy, so they use a latitude/longitude range instead.
+    // Either way the query then applies the actual distance check; a widened alert grows the radius
+    // by one cell per extra ring.
+    private AlertFanoutService.RecipientSource resolveRadius(double lat, double lng, double radiusKm, int extraRings) {
+        double lngScale = Math.max(0.01, Math.cos(Math.toRadians(lat)));
+        double radiusDeg = radiusKm / 111.0 + extraRings * User.GEO_CELL_DEGREES;
+        double lngScaleSq = lngScale * lngScale;
+        double radiusDegSq = radiusDeg * radiusDeg;
+        double latSpan = radiusDeg;
+        double lngSpan = radiusDeg / lngScale;
+
+        long minLat = (long) Math.floor((lat - latSpan) / User.GEO_CELL_DEGREES);
+        long maxLat = (long) Math.floor((lat + latSpan) / User.GEO_CELL_DEGREES);
+        long minLng = (long) Math.floor((lng - lngSpan) / User.GEO_CELL_DEGREES);
+        long maxLng = (long) Math.floor((lng + lngSpan) / User.GEO_CELL_DEGREES);
+
+        AlertFanoutService.RecipientSource inCircle;
+        if ((maxLat - minLat + 1) * (maxLng - minLng + 1) > maxCells) {
+            inCircle = (afterId, limit) -> userRepository.findRecipientsInBoxAfter(
+                    lat - latSpan, lat + latSpan, lng - lngSpan, lng + lngSpan,
+                    lat, lng, lngScaleSq, radiusDegSq, afterId, PageRequest.of(0, limit));
+        } else {
+            Set<String> cells = new LinkedHashSet<>();
+            for (long i = minLat; i <= maxLat; i++) {
+                for (long j = minLng; j <= maxLng; j++) {
+                    cells.add(User.geoCell(i, j));
+                }
+            }
+            inCircle = (afterId, limit) -> userRepository.findRecipientsInCellsAfter(
+                    cells, lat, lng, lngScaleSq, radiusDegSq, afterId, PageRequest.of(0, limit));
+        }
+        if (!includeUnlocated) return inCircle;
+        return union(inCircle, (afterId, limit) -> userRepository.findRecipientsWithoutGeoCellAfter(afterId, PageRequest.of(0, limit)));
+    }
+
+    // Merges two keyset sources by id. Each is ordered by id, so the first 'limit' of the union lies
+    // within the first 'limit' of each; a short page therefore still means both are exhausted.
+    private static AlertFanoutService.RecipientSource union(AlertFanoutService.RecipientSource first,
+                                                            AlertFanoutService.RecipientSource second) {
+        return (afterId, limit) -> {
+            List<AlertRecipient> a = first.nextPage(afterId, limit);
+            List<AlertRecipient> b = second.nextPage(afterId, limit);
+            List<AlertRecipient> merged = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+            int i = 0;
+            int j = 0;
+            while (merged.size() < limit && (i < a.size() || j < b.size())) {
+                if (j >= b.size()) {
+                    merged.add(a.get(i++));
+                } else if (i >= a.size()) {
+                    merged.add(b.get(j++));
+                } else {
+                    long idA = a.get(i).getId();
+                    long idB = b.get(j).getId();
+                    if (idA <= idB) {
+                        merged.add(a.get(i++));
+                        if (idA == idB) j++;
+                    } else {
+                        merged.add(b.get(j++));
+                    }
+                }
+            }
+            return merged;
+        };
+    }
+}
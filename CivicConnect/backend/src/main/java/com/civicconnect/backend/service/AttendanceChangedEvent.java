@@ -0,0 +1,8 @@
+package com.civicconnect.backend.service;
+
+import java.util.Collection;
+
+// Published by CheckInService after a batch of attendance scans for one event. userIds are the
+// volunteers whose scans were applied; listeners re-read their totals after the transaction commits.
+public record AttendanceChangedEvent(Long eventId, Collection<Long> userIds) {
+}
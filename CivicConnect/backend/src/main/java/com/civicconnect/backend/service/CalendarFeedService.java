@@ -0,0 +1,227 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.model.Event;
+import com.civicconnect.backend.model.EventCategory;
+import com.civicconnect.backend.model.EventRegistration;
+import com.civicconnect.backend.model.User;
+import com.civicconnect.backend.repository.EventRegistrationRepository;
+import com.civicconnect.backend.repository.EventRepository;
+import com.civicconnect.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// iCalendar feeds: one per user (their registered events) and one per EventCategory.
+// Each feed is rendered once through a streaming ICS writer and cached with its ETag and
+// Last-Modified; calendar apps polling every few minutes get 304s until something changes.
+// Category feeds are dropped when an event in the category changes; user feeds are dropped when
+// the user's registrations change and lazily rebuilt after any event edit (version check).
+// Dropping a feed also bumps its key's version, so a build that overlapped the change is not
+// served from the cache afterwards.
+@Service
+public class CalendarFeedService {
+
+    private static final DateTimeFormatter ICS_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${civic.events.lifecycle.duration-hours:4}")
+    private long durationHours;
+
+    // Upper bound on how stale a cached feed may get (e.g. past events ageing out)
+    @Value("${civic.calendar.max-age-minutes:60}")
+    private long maxAgeMinutes;
+
+    // Events that finished more than this many days ago are left out of feeds
+    @Value("${civic.calendar.history-days:30}")
+    private long historyDays;
+
+    private final ThreadLocal<Mac> mac;
+    private final Map<String, CachedFeed> cache = new ConcurrentHashMap<>();
+    private final AtomicLong eventsVersion = new AtomicLong();
+    // Per-key invalidation count; one small entry per feed that has ever been dropped
+    private final Map<String, Long> keyVersions = new ConcurrentHashMap<>();
+
+    public record CachedFeed(byte[] body, String etag, long lastModified, long eventsVersion, long keyVersion,
+                             Instant builtAt) {
+    }
+
+    public CalendarFeedService(@Value("${civic.calendar.secret:civic_connect_calendar_feed_key_change_me_123456}") String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (Exception e) {
+                throw new IllegalStateException("HmacSHA256 unavailable", e);
+            }
+        });
+    }
+
+    // Calendar apps cannot send a bearer token, so per-user feed URLs carry a signed key instead
+    public String feedKey(Long userId) {
+        byte[] signature = mac.get().doFinal(("calendar:" + userId).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    public boolean isValidFeedKey(Long userId, String key) {
+        return key != null && MessageDigest.isEqual(feedKey(userId).getBytes(StandardCharsets.US_ASCII),
+                key.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public CachedFeed getUserFeed(Long userId) {
+        return getOrBuild("user:" + userId, () -> {
+            User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+            List<Event> events = eventRegistrationRepository.findHistoryWithEvents(user).stream()
+                    .filter(r -> "REGISTERED".equals(r.getStatus()) || "ATTENDED".equals(r.getStatus()))
+                    .map(EventRegistration::getEvent)
+                    .toList();
+            return render("CivicConnect - My Events", events);
+        });
+    }
+
+    public CachedFeed getCategoryFeed(EventCategory category) {
+        return getOrBuild("category:" + category.name(), () -> render("CivicConnect - " + category.getDisplayName(),
+                eventRepository.findCalendarByCategory(category, LocalDateTime.now().minusDays(historyDays))));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        eventsVersion.incrementAndGet();
+        invalidate("category:" + change.category().name());
+        if (change.previousCategory() != null) invalidate("category:" + change.previousCategory().name());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRegistrationChanged(RegistrationChangedEvent change) {
+        invalidate("user:" + change.userId());
+    }
+
+    private void invalidate(String key) {
+        keyVersions.merge(key, 1L, Long::sum);
+        cache.remove(key);
+    }
+
+    private interface FeedRenderer {
+        byte[] render() throws IOException;
+    }
+
+    private CachedFeed getOrBuild(String key, FeedRenderer renderer) {
+        CachedFeed cached = cache.get(key);
+        Instant now = Instant.now();
+        long version = eventsVersion.get();
+        long keyVersion = keyVersions.getOrDefault(key, 0L);
+        if (cached != null && cached.eventsVersion() == version && cached.keyVersion() == keyVersion
+                && cached.builtAt().isAfter(now.minus(maxAgeMinutes, ChronoUnit.MINUTES))) {
+            return cached;
+        }
+        try {
+            byte[] body = renderer.render();
+            String etag = "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body), 0, 16) + "\"";
+            // Unchanged content keeps its Last-Modified, so If-Modified-Since clients still get 304
+            long lastModified = cached != null && cached.etag().equals(etag)
+                    ? cached.lastModified()
+                    : now.truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+            CachedFeed feed = new CachedFeed(body, etag, lastModified, version, keyVersion, now);
+            // Read before rendering: if the feed was dropped meanwhile, this copy is already stale and
+            // is not cached (and would fail the version check above if it slipped in anyway)
+            if (keyVersions.getOrDefault(key, 0L) == keyVersion) {
+                cache.put(key, feed);
+            }
+            return feed;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to build calendar feed: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] render(String calendarName, List<Event> events) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096 + events.size() * 512);
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        String stamp = ICS_UTC.format(LocalDateTime.now(ZoneOffset.UTC));
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(historyDays);
+
+        line(writer, "BEGIN:VCALENDAR");
+        line(writer, "VERSION:2.0");
+        line(writer, "PRODID:-//CivicConnect//Events//EN");
+        line(writer, "CALSCALE:GREGORIAN");
+        line(writer, "METHOD:PUBLISH");
+        line(writer, "X-WR-CALNAME:" + escape(calendarName));
+        line(writer, "REFRESH-INTERVAL;VALUE=DURATION:PT15M");
+        for (Event event : events) {
+            if (event.getEventDate() == null || event.getEventDate().isBefore(cutoff)) continue;
+            line(writer, "BEGIN:VEVENT");
+            line(writer, "UID:event-" + event.getId() + "@civicconnect");
+            line(writer, "DTSTAMP:" + stamp);
+            line(writer, "DTSTART:" + toUtc(event.getEventDate()));
+            line(writer, "DTEND:" + toUtc(event.getEventDate().plusHours(durationHours)));
+            line(writer, "SUMMARY:" + escape(event.getTitle()));
+            line(writer, "LOCATION:" + escape(event.getVenue()));
+            line(writer, "DESCRIPTION:" + escape(event.getDescription()));
+            if (event.getCategory() != null) line(writer, "CATEGORIES:" + escape(event.getCategory().getDisplayName()));
+            line(writer, "STATUS:" + ("CANCELLED".equals(event.getStatus()) ? "CANCELLED" : "CONFIRMED"));
+            line(writer, "END:VEVENT");
+        }
+        line(writer, "END:VCALENDAR");
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    private static String toUtc(LocalDateTime local) {
+        return ICS_UTC.format(local.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC));
+    }
+
+    // RFC 5545 text escaping
+    private static String escape(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,")
+                .replace("\r\n", "\\n").replace("\n", "\\n").replace("\r", "");
+    }
+
+    // Writes a content line, folded at 75 octets as RFC 5545 requires
+    private static void line(Writer writer, String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + size > 75) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(Character.toChars(codePoint));
+            octets += size;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+}
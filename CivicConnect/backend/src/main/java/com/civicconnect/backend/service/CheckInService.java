@@ -0,0 +1,178 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.AttendanceScanDto;
+import com.civicconnect.backend.dto.FeedbackEntryDto;
+import com.civicconnect.backend.model.EventRegistration;
+import com.civicconnect.backend.repository.EventRegistrationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// QR check-in. A token is "<registrationId>.<eventId>.<userId>.<signature>" with an HMAC-SHA256
+// signature, so scanners' batches are verified in memory; the DB is only touched per chunk, where
+// the still-REGISTERED rows are locked and marked attended (cancelled or re-scanned ones are skipped).
+@Service
+public class CheckInService {
+
+    private static final int UPDATE_CHUNK = 500;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ParticipationSummaryService participationSummaryService;
+
+    private final ThreadLocal<Mac> mac;
+
+    public record CheckInClaims(Long registrationId, Long eventId, Long userId) {
+    }
+
+    public CheckInService(@Value("${civic.checkin.secret:civic_connect_checkin_signing_key_change_me_123456}") String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (Exception e) {
+                throw new IllegalStateException("HmacSHA256 unavailable", e);
+            }
+        });
+    }
+
+    public String issueToken(EventRegistration registration) {
+        String payload = registration.getId() + "." + registration.getEvent().getId() + "." + registration.getUser().getId();
+        return payload + "." + sign(payload);
+    }
+
+    // Returns null for malformed or forged tokens
+    public CheckInClaims verify(String token) {
+        if (token == null) return null;
+        int lastDot = token.lastIndexOf('.');
+        if (lastDot < 0) return null;
+        String payload = token.substring(0, lastDot);
+        byte[] expected = sign(payload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(lastDot + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) return null;
+        String[] parts = payload.split("\\.");
+        if (parts.length != 3) return null;
+        try {
+            return new CheckInClaims(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Applies a batch of scans for one event. Scans are grouped by minute so offline batches keep
+    // their scan time while still being applied as a handful of IN (...) UPDATEs.
+    @Transactional
+    public Map<String, Object> markAttendance(Long eventId, List<AttendanceScanDto> scans) {
+        int invalid = 0;
+        int wrongEvent = 0;
+        Set<Long> seen = new LinkedHashSet<>();
+        TreeMap<LocalDateTime, List<Long>> byMinute = new TreeMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (AttendanceScanDto scan : scans) {
+            CheckInClaims claims = verify(scan.getToken());
+            if (claims == null) {
+                invalid++;
+                continue;
+            }
+            if (!claims.eventId().equals(eventId)) {
+                wrongEvent++;
+                continue;
+            }
+            if (!seen.add(claims.registrationId())) continue; // duplicate scan in this batch
+            LocalDateTime scannedAt = scan.getScannedAt() != null && !scan.getScannedAt().isAfter(now)
+                    ? scan.getScannedAt() : now;
+            byMinute.computeIfAbsent(scannedAt.truncatedTo(ChronoUnit.MINUTES), m -> new ArrayList<>())
+                    .add(claims.registrationId());
+        }
+
+        int checkedIn = 0;
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (Map.Entry<LocalDateTime, List<Long>> entry : byMinute.entrySet()) {
+            List<Long> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += UPDATE_CHUNK) {
+                List<EventRegistration> live = eventRegistrationRepository.findLiveForUpdate(
+                        ids.subList(from, Math.min(from + UPDATE_CHUNK, ids.size())), eventId);
+                if (live.isEmpty()) continue;
+                List<Long> liveUserIds = live.stream().map(r -> r.getUser().getId()).toList();
+                checkedIn += eventRegistrationRepository.markAttended(
+                        live.stream().map(EventRegistration::getId).toList(), eventId, entry.getKey());
+                participationSummaryService.recordAttendance(liveUserIds);
+                userIds.addAll(liveUserIds);
+            }
+        }
+
+        if (checkedIn > 0) {
+            eventPublisher.publishEvent(new AttendanceChangedEvent(eventId, userIds));
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("received", scans.size());
+        result.put("checkedIn", checkedIn);
+        // Valid tokens that did not update: already attended, cancelled or re-scanned
+        result.put("skipped", seen.size() - checkedIn);
+        result.put("invalidTokens", invalid);
+        result.put("wrongEvent", wrongEvent);
+        return result;
+    }
+
+    // Bulk feedback import: one JDBC batch per chunk instead of a load + save per registration
+    @Transactional
+    public int ingestFeedback(Long eventId, List<FeedbackEntryDto> entries) {
+        List<FeedbackEntryDto> valid = entries.stream()
+                .filter(e -> e.getRegistrationId() != null && e.getFeedback() != null && !e.getFeedback().isBlank())
+                .toList();
+        int updated = 0;
+        for (int from = 0; from < valid.size(); from += UPDATE_CHUNK) {
+            List<FeedbackEntryDto> chunk = valid.subList(from, Math.min(from + UPDATE_CHUNK, valid.size()));
+            int[][] counts = jdbcTemplate.batchUpdate(
+                    "UPDATE event_registrations SET feedback = ? WHERE id = ? AND event_id = ?",
+                    chunk, chunk.size(), (ps, entry) -> {
+                        ps.setString(1, entry.getFeedback().trim());
+                        ps.setLong(2, entry.getRegistrationId());
+                        ps.setLong(3, eventId);
+                    });
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    // Some drivers report SUCCESS_NO_INFO (-2) for batched statements
+                    if (count > 0 || count == Statement.SUCCESS_NO_INFO) updated++;
+                }
+            }
+        }
+        return updated;
+    }
+
+    private String sign(String payload) {
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+}
@@ -142,7 +142,7 @@ public class CivicPulseService {
         CivicPulseDto.VolunteerMetrics metrics = new CivicPulseDto.VolunteerMetrics();
         
         long totalEvents = eventRepository.count();
-        long upcomingEvents = eventRepository.findByStatus("UPCOMING").size();
+        long upcomingEvents = eventRepository.countByStatus("UPCOMING");
         long totalVolunteers = eventRegistrationRepository.countByStatus("REGISTERED");
         
         String engagement = "LOW";
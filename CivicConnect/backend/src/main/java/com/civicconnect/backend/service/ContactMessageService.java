@@ -0,0 +1,44 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.model.ContactMessage;
+import com.civicconnect.backend.repository.ContactMessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+public class ContactMessageService {
+
+    @Autowired
+    private ContactMessageRepository contactMessageRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private NotificationTemplateEngine templateEngine;
+
+    // The reply and its outbox email commit together; a failure rolls the reply back too
+    @Transactional
+    public ContactMessage reply(Long id, String reply) {
+        ContactMessage message = contactMessageRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Message not found"));
+
+        message.setAdminReply(reply);
+        message.setStatus("RESOLVED");
+
+        ContactMessage updated = contactMessageRepository.save(message);
+
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("name", updated.getName());
+        vars.put("subject", updated.getSubject());
+        vars.put("originalMessage", updated.getMessage());
+        vars.put("reply", reply);
+        emailService.sendTemplatedEmail(updated.getEmail(), templateEngine.render("contact-reply", vars));
+
+        return updated;
+    }
+}
@@ -1,31 +1,58 @@
 package com.civicconnect.backend.service;
 
+import com.civicconnect.backend.model.NotificationOutbox;
+import com.civicconnect.backend.repository.NotificationOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class EmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private NotificationOutboxRepository outboxRepository;
 
     // 1. The Generic Method (Matches what GrievanceController calls)
+    // No SMTP here: the message is written to the outbox in the caller's transaction and
+    // NotificationOutboxRelay delivers it, so request latency no longer includes SMTP time.
+    // The outbox row commits or rolls back with the caller's change, so a failure here must fail
+    // the caller too: do not catch exceptions from these methods inside a transaction (it is
+    // already marked rollback-only and would end in UnexpectedRollbackException).
+    @Transactional
     public void sendSimpleEmail(String toEmail, String subject, String body) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom("your-email@gmail.com"); // Optional: Sets the 'From' header
-            message.setTo(toEmail);
-            message.setSubject(subject);
-            message.setText(body);
-
-            mailSender.send(message);
-            System.out.println("Email successfully sent to " + toEmail);
-        } catch (Exception e) {
-            System.err.println("Error sending email to " + toEmail + ": " + e.getMessage());
-            // We catch the error so it doesn't crash the whole Grievance API if email fails
+        enqueue(toEmail, subject, body, null);
+    }
+
+    // Same as sendSimpleEmail, but a repeated dedupeKey (e.g. a retried request) is delivered only once.
+    // Two transactions racing on the same key: the loser fails on the unique constraint and rolls back
+    // whole, so a retry then finds the key and skips it.
+    @Transactional
+    public void enqueue(String toEmail, String subject, String body, String dedupeKey) {
+        enqueue(toEmail, subject, body, null, dedupeKey);
+    }
+
+    // Multipart text + HTML message, typically produced by NotificationTemplateEngine
+    @Transactional
+    public void sendTemplatedEmail(String toEmail, NotificationTemplateEngine.RenderedMessage message) {
+        enqueue(toEmail, message.subject(), message.text(), message.html(), null);
+    }
+
+    @Transactional
+    public void enqueue(String toEmail, String subject, String body, String htmlBody, String dedupeKey) {
+        if (toEmail == null || toEmail.isBlank()) {
+            System.err.println("Skipping email without recipient: " + subject);
+            return;
+        }
+        if (dedupeKey != null && outboxRepository.existsByDedupeKey(dedupeKey)) {
+            return;
         }
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setRecipient(toEmail);
+        entry.setSubject(subject.length() > 500 ? subject.substring(0, 500) : subject);
+        entry.setBody(body);
+        entry.setHtmlBody(htmlBody);
+        entry.setDedupeKey(dedupeKey);
+        outboxRepository.save(entry);
     }
 
     // 2. Your specific method (You can keep this if you use it elsewhere, or remove it)
@@ -36,4 +63,4 @@ public class EmailService {
             "Dear User,\n\nYour complaint '" + complaintTitle + "' has been resolved.\n\nAdmin Remark: " + remark + "\n\nThank you,\nCivicConnect Team"
         );
     }
-}
\ No newline at end of file
+}
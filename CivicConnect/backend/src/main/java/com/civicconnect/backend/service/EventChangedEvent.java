@@ -0,0 +1,8 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.model.EventCategory;
+
+// Published by EventService when an event is created, edited or cancelled.
+// previousCategory is set when an edit moved the event to another category.
+public record EventChangedEvent(Long eventId, EventCategory category, EventCategory previousCategory) {
+}
@@ -0,0 +1,121 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.model.Event;
+import com.civicconnect.backend.repository.EventRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+// Moves events UPCOMING -> ONGOING at eventDate and ONGOING -> COMPLETED once the event's
+// duration has passed. Transitions are set-based bulk UPDATEs over the (status, event_date) index.
+// Upcoming transition times sit in a DelayQueue, so the worker thread sleeps until the next one is
+// due instead of polling; a slow sweep covers events created through another node.
+@Service
+public class EventLifecycleService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Value("${civic.events.lifecycle.duration-hours:4}")
+    private long durationHours;
+
+    private final TransactionTemplate transactionTemplate;
+    private final DelayQueue<Transition> transitions = new DelayQueue<>();
+    private volatile Thread worker;
+
+    public EventLifecycleService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        advance(); // catch up on anything that became due while the app was down
+
+        eventRepository.findDistinctEventDatesByStatus("UPCOMING").forEach(this::track);
+        eventRepository.findDistinctEventDatesByStatus("ONGOING")
+                .forEach(date -> transitions.offer(new Transition(date.plusHours(durationHours))));
+        System.out.println("✅ Event lifecycle tracking " + transitions.size() + " pending transitions");
+
+        worker = Thread.ofPlatform().daemon().name("event-lifecycle").start(this::run);
+    }
+
+    // Called when an event is created or its date changes. A superseded entry just wakes the
+    // worker for a no-op UPDATE, so nothing has to be removed from the queue.
+    public void track(Event event) {
+        if (event.getEventDate() != null) track(event.getEventDate());
+    }
+
+    private void track(LocalDateTime eventDate) {
+        transitions.offer(new Transition(eventDate));
+        transitions.offer(new Transition(eventDate.plusHours(durationHours)));
+    }
+
+    @Scheduled(fixedDelayString = "${civic.events.lifecycle.sweep-ms:900000}", initialDelayString = "${civic.events.lifecycle.sweep-ms:900000}")
+    public void sweep() {
+        advance();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) worker.interrupt();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                transitions.take();
+                // Several events often share a start time: drain everything already due in one go
+                while (transitions.poll() != null) {
+                    // discard
+                }
+                advance();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("❌ Event lifecycle error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void advance() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime completedBefore = now.minusHours(durationHours);
+        int[] counts = transactionTemplate.execute(status -> new int[]{
+                eventRepository.markCompleted(completedBefore),
+                eventRepository.markOngoing(now, completedBefore)
+        });
+        if (counts != null && (counts[0] > 0 || counts[1] > 0)) {
+            System.out.println("📅 Event lifecycle: " + counts[1] + " started, " + counts[0] + " completed");
+        }
+    }
+
+    private static final class Transition implements Delayed {
+        private final long dueAtMillis;
+
+        Transition(LocalDateTime dueAt) {
+            this.dueAtMillis = dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAtMillis, ((Transition) other).dueAtMillis);
+        }
+    }
+}
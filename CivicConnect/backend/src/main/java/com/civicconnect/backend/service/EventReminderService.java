@@ -0,0 +1,150 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.ReminderRecipient;
+import com.civicconnect.backend.model.Event;
+import com.civicconnect.backend.model.EventReminderLease;
+import com.civicconnect.backend.repository.EventRegistrationRepository;
+import com.civicconnect.backend.repository.EventReminderLeaseRepository;
+import com.civicconnect.backend.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Sends T-24h and T-2h reminders to registered volunteers. Each tick finds events entering a
+// reminder window (indexed on status + event_date), takes that event's lease row, renders the
+// event's message once and enqueues one outbox email per volunteer, page by page. Delivery then
+// goes through NotificationOutboxRelay's batched SMTP sessions. Every tick scans the event's
+// registered volunteers from the start and skips those whose reminder is already in the outbox,
+// so late registrations, waitlist promotions and re-registrations (which keep their old
+// registration id) are all picked up, and a resumed or repeated page stays harmless.
+@Service
+public class EventReminderService {
+
+    private static final DateTimeFormatter EMAIL_DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a");
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private EventReminderLeaseRepository leaseRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private NotificationTemplateEngine templateEngine;
+
+    @Value("${civic.events.reminders.page-size:500}")
+    private int pageSize;
+
+    @Value("${civic.events.reminders.lease-seconds:300}")
+    private long leaseSeconds;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public EventReminderService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${civic.events.reminders.poll-interval-ms:60000}")
+    public void sendDueReminders() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            // 2H first; the 24H window stops where the 2H window starts so nobody gets both at once
+            for (Event event : eventRepository.findUpcomingStartingBetween(now, now.plusHours(2))) {
+                remind(event, "2H", "in about 2 hours");
+            }
+            for (Event event : eventRepository.findUpcomingStartingBetween(now.plusHours(2), now.plusHours(24))) {
+                // Created inside the window: volunteers signed up knowing the date, the 2H reminder is enough
+                if (event.getCreatedAt() != null && event.getCreatedAt().isAfter(event.getEventDate().minusHours(24))) {
+                    continue;
+                }
+                // A tick delayed by downtime can land on the event's own day
+                remind(event, "24H", event.getEventDate().toLocalDate().equals(now.toLocalDate()) ? "today" : "tomorrow");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Event reminder error: " + e.getMessage());
+        }
+    }
+
+    private void remind(Event event, String window, String when) {
+        EventReminderLease lease = findOrCreateLease(event.getId(), window);
+        String owner = UUID.randomUUID().toString();
+        Integer claimed = transactionTemplate.execute(status -> leaseRepository.claim(
+                lease.getId(), owner, LocalDateTime.now().plusSeconds(leaseSeconds), LocalDateTime.now()));
+        if (claimed == null || claimed == 0) return; // another node is on it
+
+        try {
+            // HashMap, not Map.of: optional fields such as the venue may be null (rendered as empty)
+            Map<String, Object> vars = new HashMap<>();
+            vars.put("eventTitle", event.getTitle());
+            vars.put("eventDate", event.getEventDate().format(EMAIL_DATE_FORMAT));
+            vars.put("venue", event.getVenue());
+            vars.put("when", when);
+            NotificationTemplateEngine.PreparedMessage message = templateEngine.prepare("event-reminder", vars);
+
+            // The cursor only pages through this pass; already-reminded volunteers are filtered in the query
+            String dedupePrefix = "event-reminder-" + window + "-";
+            long afterId = 0L;
+            int enqueued = 0;
+            while (true) {
+                long cursor = afterId;
+                List<ReminderRecipient> sent = transactionTemplate.execute(status -> {
+                    List<ReminderRecipient> page = eventRegistrationRepository.findReminderRecipients(
+                            event.getId(), dedupePrefix, cursor, PageRequest.of(0, pageSize));
+                    if (page.isEmpty()) return null;
+                    for (ReminderRecipient recipient : page) {
+                        NotificationTemplateEngine.RenderedMessage rendered =
+                                message.render(Map.of("username", recipient.getUsername()));
+                        emailService.enqueue(recipient.getEmail(), rendered.subject(), rendered.text(), rendered.html(),
+                                dedupePrefix + recipient.getRegistrationId());
+                    }
+                    long last = page.get(page.size() - 1).getRegistrationId();
+                    // Lease renewal and the enqueued emails commit together
+                    if (leaseRepository.advance(lease.getId(), owner, last,
+                            LocalDateTime.now().plusSeconds(leaseSeconds), LocalDateTime.now()) == 0) {
+                        throw new IllegalStateException("Reminder lease lost for event " + event.getId());
+                    }
+                    return page;
+                });
+                if (sent == null) break;
+                afterId = sent.get(sent.size() - 1).getRegistrationId();
+                enqueued += sent.size();
+            }
+            if (enqueued > 0) {
+                System.out.println("⏰ Enqueued " + enqueued + " " + window + " reminders for event " + event.getId());
+            }
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> leaseRepository.release(lease.getId(), owner));
+        }
+    }
+
+    private EventReminderLease findOrCreateLease(Long eventId, String window) {
+        return leaseRepository.findByEventIdAndReminderWindow(eventId, window).orElseGet(() -> {
+            try {
+                EventReminderLease lease = new EventReminderLease();
+                lease.setEventId(eventId);
+                lease.setReminderWindow(window);
+                return transactionTemplate.execute(status -> leaseRepository.save(lease));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+                return leaseRepository.findByEventIdAndReminderWindow(eventId, window).orElseThrow();
+            }
+        });
+    }
+}
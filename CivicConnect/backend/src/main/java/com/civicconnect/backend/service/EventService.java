@@ -2,21 +2,36 @@ package com.civicconnect.backend.service;
 
 import com.civicconnect.backend.dto.EventCreateDto;
 import com.civicconnect.backend.dto.EventResponseDto;
+import com.civicconnect.backend.dto.EventSearchDto;
+import com.civicconnect.backend.dto.EventSearchResultDto;
 import com.civicconnect.backend.dto.EventUpdateDto;
+import com.civicconnect.backend.dto.RegistrationResultDto;
 import com.civicconnect.backend.model.Event;
 import com.civicconnect.backend.model.EventCategory;
 import com.civicconnect.backend.model.EventRegistration;
 import com.civicconnect.backend.model.User;
 import com.civicconnect.backend.repository.EventRegistrationRepository;
 import com.civicconnect.backend.repository.EventRepository;
+import com.civicconnect.backend.repository.EventSpecifications;
+import com.civicconnect.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map; // Added for Map
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,7 +40,29 @@ public class EventService {
 
     private final EventRepository eventRepository;
     private final EventRegistrationRepository eventRegistrationRepository;
+    private final UserRepository userRepository;
     private final EmailService emailService; 
+    private final NotificationTemplateEngine templateEngine;
+    private final EventLifecycleService eventLifecycleService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ParticipationSummaryService participationSummaryService;
+
+    private static final DateTimeFormatter EMAIL_DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a");
+
+    // Upper bound on ids per IN (...) list when batching listing lookups
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    // Upper bound on page size for search and the keyset-paged feeds
+    private static final int MAX_PAGE_LIMIT = 100;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    // Waitlist rows examined per promotion round
+    private static final int WAITLIST_BATCH = 20;
+
+    private static final List<String> REGISTRATION_STATUSES = List.of("REGISTERED", "WAITLISTED", "ATTENDED", "CANCELLED");
+    // Statuses that hold one of the event's slots (checking in does not give the slot back)
+    private static final List<String> SLOT_HOLDING_STATUSES = List.of("REGISTERED", "ATTENDED");
+    private static final List<String> EVENT_STATUSES = List.of("UPCOMING", "ONGOING", "COMPLETED", "CANCELLED");
 
     // Create Event (Admin only)
     public Event createEvent(EventCreateDto dto, User creator) {
@@ -33,18 +70,25 @@ public class EventService {
         event.setTitle(dto.getTitle());
         event.setDescription(dto.getDescription());
         event.setVenue(dto.getVenue());
+        event.setLatitude(dto.getLatitude());
+        event.setLongitude(dto.getLongitude());
         event.setEventDate(dto.getEventDate());
         event.setCategory(dto.getCategory());
         event.setMaxVolunteers(dto.getMaxVolunteers());
         event.setImageUrl(dto.getImageUrl());
+        event.setFlashSignup(Boolean.TRUE.equals(dto.getFlashSignup()));
         event.setCreatedBy(creator);
         event.setStatus("UPCOMING");
         event.setCreatedAt(LocalDateTime.now());
         
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        eventLifecycleService.track(saved);
+        eventPublisher.publishEvent(new EventChangedEvent(saved.getId(), saved.getCategory(), null));
+        return saved;
     }
 
     // Update Event (Creator only)
+    @Transactional
     public Event updateEvent(Long id, EventUpdateDto dto, User user) {
         Event event = eventRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
@@ -52,17 +96,30 @@ public class EventService {
         if (!event.getCreatedBy().getId().equals(user.getId())) {
             throw new RuntimeException("Only the event creator can update this event");
         }
+        EventCategory previousCategory = event.getCategory();
 
         if (dto.getTitle() != null) event.setTitle(dto.getTitle());
         if (dto.getDescription() != null) event.setDescription(dto.getDescription());
         if (dto.getVenue() != null) event.setVenue(dto.getVenue());
+        if (dto.getLatitude() != null) event.setLatitude(dto.getLatitude());
+        if (dto.getLongitude() != null) event.setLongitude(dto.getLongitude());
         if (dto.getEventDate() != null) event.setEventDate(dto.getEventDate());
         if (dto.getCategory() != null) event.setCategory(dto.getCategory());
         if (dto.getMaxVolunteers() != null) event.setMaxVolunteers(dto.getMaxVolunteers());
         if (dto.getImageUrl() != null) event.setImageUrl(dto.getImageUrl());
         if (dto.getStatus() != null) event.setStatus(dto.getStatus());
+        if (dto.getFlashSignup() != null) event.setFlashSignup(dto.getFlashSignup());
 
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        if (dto.getEventDate() != null) eventLifecycleService.track(saved);
+        eventPublisher.publishEvent(new EventChangedEvent(saved.getId(), saved.getCategory(),
+                previousCategory != saved.getCategory() ? previousCategory : null));
+
+        // Raised capacity: move waitlisted volunteers into the new slots
+        if (dto.getMaxVolunteers() != null) {
+            promoteFromWaitlist(saved);
+        }
+        return saved;
     }
 
     // Delete/Cancel Event
@@ -77,20 +134,19 @@ public class EventService {
 
         event.setStatus("CANCELLED");
         eventRepository.save(event);
+        eventPublisher.publishEvent(new EventChangedEvent(event.getId(), event.getCategory(), null));
     }
 
     // Get All Upcoming Events
     public List<EventResponseDto> getUpcomingEvents(User currentUser) {
         LocalDateTime now = LocalDateTime.now();
-        List<Event> events = eventRepository.findByStatusAndEventDateAfterOrderByEventDateAsc("UPCOMING", now);
-        return events.stream()
-                .map(event -> mapToResponseDto(event, currentUser))
-                .collect(Collectors.toList());
+        List<Event> events = eventRepository.findUpcomingWithCreator("UPCOMING", now);
+        return mapToResponseDtos(events, currentUser);
     }
 
     // Get Event by ID
     public EventResponseDto getEventById(Long id, User currentUser) {
-        Event event = eventRepository.findById(id)
+        Event event = eventRepository.findWithCreatorById(id)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
         return mapToResponseDto(event, currentUser);
     }
@@ -98,84 +154,433 @@ public class EventService {
     // Get Events Created by User
     public List<EventResponseDto> getEventsByCreator(User user) {
         List<Event> events = eventRepository.findByCreatedByOrderByCreatedAtDesc(user);
-        return events.stream()
-                .map(event -> mapToResponseDto(event, user))
-                .collect(Collectors.toList());
+        return mapToResponseDtos(events, user);
     }
 
-    // Register Volunteer + SEND EMAIL
+    // Register Volunteer + SEND EMAIL (joins the waitlist when the event is full)
     @Transactional
-    public void registerVolunteer(Long eventId, User user) {
+    public RegistrationResultDto registerVolunteer(Long eventId, User user) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
 
-        // Check if already registered
-        if (eventRegistrationRepository.existsByEventAndUserAndStatus(event, user, "REGISTERED")) {
+        // Check if already registered (a cancelled row is reused, (event, user) is unique). Locked: two
+        // re-registrations of the same cancelled row would otherwise both reserve a slot for it
+        EventRegistration registration = eventRegistrationRepository.findByEventAndUserForUpdate(event, user).orElse(null);
+        if (registration != null && "REGISTERED".equals(registration.getStatus())) {
             throw new RuntimeException("You are already registered for this event");
         }
-
-        // Check capacity
-        long currentRegistrations = eventRegistrationRepository.countByEventAndStatus(event, "REGISTERED");
-        if (event.getMaxVolunteers() != null && currentRegistrations >= event.getMaxVolunteers()) {
-            throw new RuntimeException("Event is full. No more volunteers can register.");
+        if (registration != null && "ATTENDED".equals(registration.getStatus())) {
+            throw new RuntimeException("You have already checked in to this event");
+        }
+        if (registration != null && "WAITLISTED".equals(registration.getStatus())) {
+            throw new RuntimeException("You are already on the waitlist for this event");
         }
 
-        EventRegistration registration = new EventRegistration();
-        registration.setEvent(event);
-        registration.setUser(user);
-        registration.setRegisteredAt(LocalDateTime.now());
-        registration.setStatus("REGISTERED");
+        String previousStatus = registration != null ? registration.getStatus() : null;
+        if (registration == null) {
+            registration = new EventRegistration();
+            registration.setEvent(event);
+            registration.setUser(user);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        registration.setRegisteredAt(now);
+
+        // Reserve capacity atomically; a concurrent duplicate insert fails on the unique
+        // constraint and rolls the reservation back with it
+        if (eventRepository.reserveSlot(eventId) == 1) {
+            registration.setStatus("REGISTERED");
+            eventRegistrationRepository.save(registration);
+            participationSummaryService.recordTransition(user.getId(), previousStatus, "REGISTERED");
+            eventPublisher.publishEvent(new RegistrationChangedEvent(eventId, user.getId(), "REGISTERED"));
+            sendRegistrationEmail(event, user);
+            return new RegistrationResultDto("REGISTERED", null);
+        }
 
+        // Full: join the back of the FIFO waitlist
+        registration.setStatus("WAITLISTED");
+        registration.setWaitlistedAt(now);
         eventRegistrationRepository.save(registration);
+        participationSummaryService.recordTransition(user.getId(), previousStatus, "WAITLISTED");
+        eventPublisher.publishEvent(new RegistrationChangedEvent(eventId, user.getId(), "WAITLISTED"));
+
+        // A slot may have been released between the failed reservation and joining the queue
+        promoteFromWaitlist(event);
+        if ("REGISTERED".equals(registration.getStatus())) {
+            return new RegistrationResultDto("REGISTERED", null);
+        }
+
+        Integer position = getWaitlistPositions(user, List.of(eventId)).get(eventId);
+        sendWaitlistEmail(event, user, position);
+        return new RegistrationResultDto("WAITLISTED", position);
+    }
+
+    // Applies a drained batch of queued sign-ups for one event in a single transaction, in queue order.
+    // The event row is locked once, existing rows are read with one IN query and the counter is
+    // bumped with one UPDATE, so the per-request cost of a flash sign-up is a couple of row writes.
+    // Returns one result per user id (an existing registration/waitlist entry is returned as is).
+    // The queue only carries ids; the users (needed for the emails) are loaded here in one query.
+    @Transactional
+    public List<RegistrationResultDto> registerBatch(Long eventId, List<Long> userIds) {
+        Event event = eventRepository.findByIdForUpdate(eventId)
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+
+        Map<Long, User> usersById = new HashMap<>();
+        for (User user : userRepository.findAllById(new HashSet<>(userIds))) {
+            usersById.put(user.getId(), user);
+        }
+        List<User> users = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            User user = usersById.get(userId);
+            if (user == null) throw new RuntimeException("User not found");
+            users.add(user);
+        }
+
+        Map<Long, EventRegistration> existing = new HashMap<>();
+        for (EventRegistration reg : eventRegistrationRepository.findByEventIdAndUserIds(eventId, userIds)) {
+            existing.put(reg.getUser().getId(), reg);
+        }
+
+        int free = event.getMaxVolunteers() == null ? Integer.MAX_VALUE
+                : Math.max(0, event.getMaxVolunteers() - event.getRegisteredCount());
+        long waitlistLength = eventRegistrationRepository.countByEventAndStatus(event, "WAITLISTED");
+        int admitted = 0;
+        LocalDateTime now = LocalDateTime.now();
+
+        List<RegistrationResultDto> results = new ArrayList<>(users.size());
+        List<EventRegistration> toSave = new ArrayList<>();
+        List<RegistrationResultDto> savedResults = new ArrayList<>();
+        List<String> previousStatuses = new ArrayList<>();
+        for (User user : users) {
+            EventRegistration registration = existing.get(user.getId());
+            if (registration != null && !"CANCELLED".equals(registration.getStatus())) {
+                results.add(new RegistrationResultDto(registration.getStatus(), null));
+                continue;
+            }
+            previousStatuses.add(registration != null ? registration.getStatus() : null);
+            if (registration == null) {
+                registration = new EventRegistration();
+                registration.setEvent(event);
+                registration.setUser(user);
+                existing.put(user.getId(), registration); // same user twice in one batch
+            }
+            registration.setRegisteredAt(now);
+            RegistrationResultDto result;
+            if (admitted < free) {
+                registration.setStatus("REGISTERED");
+                admitted++;
+                result = new RegistrationResultDto("REGISTERED", null);
+            } else {
+                registration.setStatus("WAITLISTED");
+                registration.setWaitlistedAt(now);
+                waitlistLength++;
+                result = new RegistrationResultDto("WAITLISTED", (int) waitlistLength);
+            }
+            results.add(result);
+            toSave.add(registration);
+            savedResults.add(result);
+        }
 
-        // Send Confirmation Email
-        try {
-            String formattedDate = event.getEventDate().format(DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a"));
-            String subject = "Registration Confirmed: " + event.getTitle();
-            String body = "Hello " + user.getUsername() + ",\n\n" +
-                          "You have successfully registered as a volunteer for '" + event.getTitle() + "'.\n\n" +
-                          "📅 Date: " + formattedDate + "\n" +
-                          "📍 Venue: " + event.getVenue() + "\n\n" +
-                          "Thank you for your contribution to the community!\n\n" +
-                          "Best regards,\nCivicConnect Team";
+        eventRegistrationRepository.saveAll(toSave);
+        if (admitted > 0) {
+            eventRepository.addRegisteredCount(eventId, admitted);
+        }
 
-            emailService.sendSimpleEmail(user.getEmail(), subject, body);
-        } catch (Exception e) {
-            System.err.println("Failed to send event registration email: " + e.getMessage());
+        for (int i = 0; i < toSave.size(); i++) {
+            User user = toSave.get(i).getUser();
+            RegistrationResultDto result = savedResults.get(i);
+            participationSummaryService.recordTransition(user.getId(), previousStatuses.get(i), result.getStatus());
+            eventPublisher.publishEvent(new RegistrationChangedEvent(eventId, user.getId(), result.getStatus()));
+            if ("REGISTERED".equals(result.getStatus())) {
+                sendRegistrationEmail(event, user);
+            } else {
+                sendWaitlistEmail(event, user, result.getWaitlistPosition());
+            }
         }
+        return results;
     }
 
-    // Unregister Volunteer
+    // Unregister Volunteer (a freed slot goes to the head of the waitlist in the same transaction).
+    // Only before the event starts: a checked-in volunteer has attended, so their slot is never handed on.
     @Transactional
     public void unregisterVolunteer(Long eventId, User user) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
+        if (!"UPCOMING".equals(event.getStatus())) {
+            throw new RuntimeException("Registrations can only be cancelled for upcoming events");
+        }
 
-        EventRegistration registration = eventRegistrationRepository.findByEventAndUser(event, user)
+        // Locked so two concurrent cancellations cannot both release the slot
+        EventRegistration registration = eventRegistrationRepository.findByEventAndUserForUpdate(event, user)
                 .orElseThrow(() -> new RuntimeException("You are not registered for this event"));
+        if ("CANCELLED".equals(registration.getStatus())) {
+            throw new RuntimeException("You are not registered for this event");
+        }
+        if ("ATTENDED".equals(registration.getStatus())) {
+            throw new RuntimeException("You have already checked in to this event");
+        }
 
+        String previousStatus = registration.getStatus();
         registration.setStatus("CANCELLED");
         eventRegistrationRepository.save(registration);
+        participationSummaryService.recordTransition(user.getId(), previousStatus, "CANCELLED");
+        eventPublisher.publishEvent(new RegistrationChangedEvent(eventId, user.getId(), "CANCELLED"));
+
+        // A waitlisted volunteer held no slot and just leaves the queue
+        if ("REGISTERED".equals(previousStatus)) {
+            eventRepository.releaseSlot(eventId);
+            promoteFromWaitlist(event);
+        }
+    }
+
+    // Moves volunteers from the front of the waitlist into free slots. Each promotion is a slot
+    // reservation plus a conditional WAITLISTED -> REGISTERED update, so concurrent callers never
+    // promote the same row twice or overfill the event. Promoted volunteers are emailed via the outbox.
+    private List<EventRegistration> promoteFromWaitlist(Event event) {
+        List<EventRegistration> promoted = new ArrayList<>();
+        boolean progressed = true;
+        while (progressed) {
+            progressed = false;
+            List<EventRegistration> head = eventRegistrationRepository.findWaitlistHead(
+                    event.getId(), PageRequest.of(0, WAITLIST_BATCH));
+            for (EventRegistration candidate : head) {
+                if (eventRepository.reserveSlot(event.getId()) == 0) {
+                    notifyPromoted(event, promoted);
+                    return promoted;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                if (eventRegistrationRepository.promoteFromWaitlist(candidate.getId(), now) == 1) {
+                    candidate.setStatus("REGISTERED");
+                    candidate.setRegisteredAt(now);
+                    promoted.add(candidate);
+                    participationSummaryService.recordTransition(candidate.getUser().getId(), "WAITLISTED", "REGISTERED");
+                    eventPublisher.publishEvent(new RegistrationChangedEvent(
+                            event.getId(), candidate.getUser().getId(), "REGISTERED"));
+                    progressed = true;
+                } else {
+                    eventRepository.releaseSlot(event.getId()); // lost the row to a concurrent cancel/promote
+                }
+            }
+        }
+        notifyPromoted(event, promoted);
+        return promoted;
+    }
+
+    private void notifyPromoted(Event event, List<EventRegistration> promoted) {
+        for (EventRegistration registration : promoted) {
+            User user = registration.getUser();
+            emailService.sendTemplatedEmail(user.getEmail(),
+                    templateEngine.render("waitlist-promoted", eventEmailVars(event, user)));
+        }
+    }
+
+    // Outbox writes join the registration transaction (see EmailService), so failures are not caught here
+    private void sendRegistrationEmail(Event event, User user) {
+        emailService.sendTemplatedEmail(user.getEmail(),
+                templateEngine.render("event-registration", eventEmailVars(event, user)));
+    }
+
+    private void sendWaitlistEmail(Event event, User user, Integer position) {
+        Map<String, Object> vars = eventEmailVars(event, user);
+        vars.put("position", position != null ? position : "-");
+        emailService.sendTemplatedEmail(user.getEmail(), templateEngine.render("event-waitlisted", vars));
+    }
+
+    // HashMap, not Map.of: optional fields such as the venue may be null (rendered as empty)
+    private static Map<String, Object> eventEmailVars(Event event, User user) {
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("username", user.getUsername());
+        vars.put("eventTitle", event.getTitle());
+        vars.put("eventDate", event.getEventDate() != null ? event.getEventDate().format(EMAIL_DATE_FORMAT) : null);
+        vars.put("venue", event.getVenue());
+        return vars;
+    }
+
+    // eventId -> 1-based waitlist position, for the given events the user is waitlisted on
+    private Map<Long, Integer> getWaitlistPositions(User user, List<Long> eventIds) {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (Object[] row : eventRegistrationRepository.findWaitlistPositions(user.getId(), eventIds)) {
+            positions.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        return positions;
+    }
+
+    // Current user's live registration, for issuing a check-in QR token
+    public EventRegistration getActiveRegistration(Long eventId, User user) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+        EventRegistration registration = eventRegistrationRepository.findByEventAndUser(event, user)
+                .orElseThrow(() -> new RuntimeException("You are not registered for this event"));
+        if (!"REGISTERED".equals(registration.getStatus()) && !"ATTENDED".equals(registration.getStatus())) {
+            throw new RuntimeException("You are not registered for this event");
+        }
+        return registration;
+    }
+
+    // Bring registeredCount in line with the registrations table on startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileRegisteredCounts() {
+        int updated = eventRepository.reconcileRegisteredCounts();
+        System.out.println("✅ Reconciled registered counts for " + updated + " events");
     }
 
     // Get User's Participation History
     public List<EventResponseDto> getUserParticipationHistory(User user) {
-        List<EventRegistration> registrations = eventRegistrationRepository.findByUserOrderByRegisteredAtDesc(user);
-        return registrations.stream()
-                .map(reg -> {
-                    EventResponseDto dto = mapToResponseDto(reg.getEvent(), user);
-                    dto.setUserRegistered(reg.getStatus().equals("REGISTERED"));
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        List<EventRegistration> registrations = eventRegistrationRepository.findHistoryWithEvents(user);
+        List<EventResponseDto> dtos = mapToResponseDtos(
+                registrations.stream().map(EventRegistration::getEvent).collect(Collectors.toList()), user);
+        for (int i = 0; i < registrations.size(); i++) {
+            dtos.get(i).setUserRegistered(SLOT_HOLDING_STATUSES.contains(registrations.get(i).getStatus()));
+            dtos.get(i).setRegistrationStatus(registrations.get(i).getStatus());
+        }
+        return dtos;
+    }
+
+    // Participation history one page at a time, newest first, keyset-paged on (registeredAt, id).
+    // statuses is a comma-separated filter (REGISTERED, WAITLISTED, ATTENDED, CANCELLED); blank means all.
+    public EventSearchResultDto getUserParticipationHistoryPage(User user, String statuses, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        List<String> filter = parseStatuses(statuses, REGISTRATION_STATUSES);
+        Cursor after = Cursor.parse(cursor);
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<EventRegistration> rows = after == null
+                ? eventRegistrationRepository.findHistoryPage(user, filter, page)
+                : eventRegistrationRepository.findHistoryPageAfter(user, filter, after.at(), after.id(), page);
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) rows = rows.subList(0, size);
+        List<EventResponseDto> dtos = mapToResponseDtos(
+                rows.stream().map(EventRegistration::getEvent).collect(Collectors.toList()), user);
+        for (int i = 0; i < rows.size(); i++) {
+            dtos.get(i).setUserRegistered(SLOT_HOLDING_STATUSES.contains(rows.get(i).getStatus()));
+            dtos.get(i).setRegistrationStatus(rows.get(i).getStatus());
+        }
+        EventRegistration last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        return new EventSearchResultDto(dtos, hasMore ? last.getRegisteredAt() + "_" + last.getId() : null);
+    }
+
+    // Events created by the user one page at a time, newest first, keyset-paged on (createdAt, id).
+    // statuses filters on event status (UPCOMING, ONGOING, COMPLETED, CANCELLED); blank means all.
+    public EventSearchResultDto getEventsByCreatorPage(User user, String statuses, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+        List<String> filter = parseStatuses(statuses, EVENT_STATUSES);
+        Cursor after = Cursor.parse(cursor);
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<Event> rows = after == null
+                ? eventRepository.findCreatedPage(user, filter, page)
+                : eventRepository.findCreatedPageAfter(user, filter, after.at(), after.id(), page);
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) rows = rows.subList(0, size);
+        Event last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        return new EventSearchResultDto(mapToResponseDtos(rows, user),
+                hasMore ? last.getCreatedAt() + "_" + last.getId() : null);
+    }
+
+    // Keyset cursor "<timestamp>_<id>" shared by search and the paged feeds
+    private record Cursor(LocalDateTime at, Long id) {
+        static Cursor parse(String value) {
+            if (value == null || value.isBlank()) return null;
+            String[] parts = value.split("_", 2);
+            try {
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (Exception e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+    }
+
+    private static List<String> parseStatuses(String statuses, List<String> allowed) {
+        if (statuses == null || statuses.isBlank()) return allowed;
+        List<String> parsed = new ArrayList<>();
+        for (String status : statuses.split(",")) {
+            String value = status.trim().toUpperCase();
+            if (value.isEmpty()) continue;
+            if (!allowed.contains(value)) throw new RuntimeException("Invalid status: " + status.trim());
+            parsed.add(value);
+        }
+        return parsed.isEmpty() ? allowed : parsed;
+    }
+
+    // Search events by any combination of category, status, date range, free text and distance.
+    // Results are ordered by (eventDate, id) and paged with a keyset cursor, so deep pages cost the
+    // same as the first one. Distance uses a bounding box in SQL and the exact great-circle check here.
+    public EventSearchResultDto searchEvents(EventSearchDto criteria, User currentUser) {
+        int limit = Math.max(1, Math.min(criteria.getLimit(), MAX_PAGE_LIMIT));
+
+        Specification<Event> spec = Specification.where(EventSpecifications.fetchCreator());
+        if (criteria.getCategory() != null) spec = spec.and(EventSpecifications.hasCategory(criteria.getCategory()));
+        if (criteria.getStatus() != null && !criteria.getStatus().isBlank()) {
+            spec = spec.and(EventSpecifications.hasStatus(criteria.getStatus().trim().toUpperCase()));
+        }
+        if (criteria.getFrom() != null) spec = spec.and(EventSpecifications.onOrAfter(criteria.getFrom()));
+        if (criteria.getTo() != null) spec = spec.and(EventSpecifications.onOrBefore(criteria.getTo()));
+        if (criteria.getQ() != null && !criteria.getQ().isBlank()) {
+            spec = spec.and(EventSpecifications.matchesText(criteria.getQ().trim()));
+        }
+
+        boolean byDistance = criteria.getLat() != null && criteria.getLng() != null && criteria.getRadiusKm() != null;
+        if (byDistance) {
+            double lat = criteria.getLat();
+            double latSpan = criteria.getRadiusKm() / 111.0;
+            double lngSpan = criteria.getRadiusKm() / (111.0 * Math.max(0.01, Math.cos(Math.toRadians(lat))));
+            spec = spec.and(EventSpecifications.withinBox(lat - latSpan, lat + latSpan,
+                    criteria.getLng() - lngSpan, criteria.getLng() + lngSpan));
+        }
+
+        Cursor cursor = Cursor.parse(criteria.getCursor());
+        LocalDateTime afterDate = cursor != null ? cursor.at() : null;
+        Long afterId = cursor != null ? cursor.id() : null;
+
+        // Fetch limit + 1 rows to know whether another page exists. Box corners fall outside the
+        // circle, so a distance search keeps reading from the cursor until the page is full.
+        List<Event> page = new ArrayList<>(limit);
+        List<Double> distances = new ArrayList<>(limit);
+        boolean hasMore = false;
+        scan:
+        while (true) {
+            Specification<Event> pageSpec = afterDate == null ? spec : spec.and(EventSpecifications.after(afterDate, afterId));
+            List<Event> rows = eventRepository.findBy(pageSpec, q -> q
+                    .project("createdBy") // applied as a fetch graph: creators come in the same query
+                    .sortBy(Sort.by("eventDate").ascending().and(Sort.by("id").ascending()))
+                    .limit(limit + 1)
+                    .all());
+            for (Event event : rows) {
+                if (page.size() == limit) {
+                    hasMore = true;
+                    break scan;
+                }
+                afterDate = event.getEventDate();
+                afterId = event.getId();
+                Double distance = byDistance ? distanceKm(criteria.getLat(), criteria.getLng(), event) : null;
+                if (byDistance && distance > criteria.getRadiusKm()) continue;
+                page.add(event);
+                distances.add(distance);
+            }
+            if (rows.size() <= limit) break;
+        }
+
+        List<EventResponseDto> dtos = mapToResponseDtos(page, currentUser);
+        for (int i = 0; i < dtos.size(); i++) {
+            dtos.get(i).setDistanceKm(distances.get(i));
+        }
+        String nextCursor = hasMore ? afterDate + "_" + afterId : null;
+        return new EventSearchResultDto(dtos, nextCursor);
+    }
+
+    private static double distanceKm(double lat, double lng, Event event) {
+        double dLat = Math.toRadians(event.getLatitude() - lat);
+        double dLng = Math.toRadians(event.getLongitude() - lng);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat)) * Math.cos(Math.toRadians(event.getLatitude()))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
     }
 
     // Get Events by Category
     public List<EventResponseDto> getEventsByCategory(EventCategory category, User currentUser) {
-        List<Event> events = eventRepository.findByCategory(category);
-        return events.stream()
-                .map(event -> mapToResponseDto(event, currentUser))
-                .collect(Collectors.toList());
+        List<Event> events = eventRepository.findByCategoryWithCreator(category);
+        return mapToResponseDtos(events, currentUser);
     }
 
     // --- 👇 NEW METHOD: Get Volunteers for Admin ---
@@ -183,7 +588,8 @@ public class EventService {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
 
-        List<EventRegistration> registrations = eventRegistrationRepository.findByEventAndStatus(event, "REGISTERED");
+        // Checked-in volunteers stay on the roster
+        List<EventRegistration> registrations = eventRegistrationRepository.findByEventAndStatusIn(event, SLOT_HOLDING_STATUSES);
 
         return registrations.stream().map(reg -> {
             User user = reg.getUser();
@@ -191,43 +597,77 @@ public class EventService {
                 "username", user.getUsername(),
                 "email", user.getEmail(),
                 "mobileNumber", user.getMobileNumber() != null ? user.getMobileNumber() : "N/A",
-                "registeredAt", reg.getRegisteredAt().toString()
+                "registeredAt", reg.getRegisteredAt().toString(),
+                "status", reg.getStatus()
             );
         }).collect(Collectors.toList());
     }
 
     // Helper: Map Event to ResponseDto
     private EventResponseDto mapToResponseDto(Event event, User currentUser) {
-        EventResponseDto dto = new EventResponseDto();
-        dto.setId(event.getId());
-        dto.setTitle(event.getTitle());
-        dto.setDescription(event.getDescription());
-        dto.setVenue(event.getVenue());
-        dto.setEventDate(event.getEventDate());
-        dto.setCategory(event.getCategory());
-        dto.setMaxVolunteers(event.getMaxVolunteers());
-        dto.setStatus(event.getStatus());
-        dto.setImageUrl(event.getImageUrl());
-        dto.setCreatorName(event.getCreatedBy().getUsername());
-        dto.setCreatorId(event.getCreatedBy().getId());
-        dto.setCreatedAt(event.getCreatedAt());
-
-        // Calculate registration count
-        long regCount = eventRegistrationRepository.countByEventAndStatus(event, "REGISTERED");
-        dto.setRegistrationCount((int) regCount);
-
-        // Check if current user is registered
-        boolean isRegistered = currentUser != null && 
-                eventRegistrationRepository.existsByEventAndUserAndStatus(event, currentUser, "REGISTERED");
-        dto.setUserRegistered(isRegistered);
-
-        // Calculate available slots
-        if (event.getMaxVolunteers() != null) {
-            dto.setAvailableSlots(event.getMaxVolunteers() - (int) regCount);
-        } else {
-            dto.setAvailableSlots(null); // Unlimited
-        }
-
-        return dto;
+        return mapToResponseDtos(List.of(event), currentUser).get(0);
+    }
+
+    // Helper: Map a listing to ResponseDtos with a fixed number of queries, whatever the list size:
+    // one GROUP BY for registration counts and one IN lookup for the current user's registrations
+    private List<EventResponseDto> mapToResponseDtos(List<Event> events, User currentUser) {
+        if (events.isEmpty()) return new ArrayList<>();
+
+        List<Long> eventIds = events.stream().map(Event::getId).distinct().collect(Collectors.toList());
+        Map<Long, Long> regCounts = new HashMap<>();
+        Set<Long> registeredEventIds = new HashSet<>();
+        Map<Long, Integer> waitlistPositions = new HashMap<>();
+        for (int from = 0; from < eventIds.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = eventIds.subList(from, Math.min(from + IN_CLAUSE_CHUNK, eventIds.size()));
+            for (Object[] row : eventRegistrationRepository.countByEventIdsAndStatuses(chunk, SLOT_HOLDING_STATUSES)) {
+                regCounts.put((Long) row[0], (Long) row[1]);
+            }
+            if (currentUser != null) {
+                List<Long> waitlistedEventIds = new ArrayList<>();
+                for (Object[] row : eventRegistrationRepository.findStatusesByUser(
+                        currentUser.getId(), chunk, List.of("REGISTERED", "ATTENDED", "WAITLISTED"))) {
+                    if (SLOT_HOLDING_STATUSES.contains(row[1])) registeredEventIds.add((Long) row[0]);
+                    else waitlistedEventIds.add((Long) row[0]);
+                }
+                // Positions are only looked up when the user is actually waitlisted somewhere in the listing
+                if (!waitlistedEventIds.isEmpty()) {
+                    waitlistPositions.putAll(getWaitlistPositions(currentUser, waitlistedEventIds));
+                }
+            }
+        }
+
+        List<EventResponseDto> dtos = new ArrayList<>(events.size());
+        for (Event event : events) {
+            EventResponseDto dto = new EventResponseDto();
+            dto.setId(event.getId());
+            dto.setTitle(event.getTitle());
+            dto.setDescription(event.getDescription());
+            dto.setVenue(event.getVenue());
+            dto.setLatitude(event.getLatitude());
+            dto.setLongitude(event.getLongitude());
+            dto.setEventDate(event.getEventDate());
+            dto.setCategory(event.getCategory());
+            dto.setMaxVolunteers(event.getMaxVolunteers());
+            dto.setStatus(event.getStatus());
+            dto.setImageUrl(event.getImageUrl());
+            dto.setFlashSignup(event.isFlashSignup());
+            dto.setCreatorName(event.getCreatedBy().getUsername());
+            dto.setCreatorId(event.getCreatedBy().getId());
+            dto.setCreatedAt(event.getCreatedAt());
+
+            long regCount = regCounts.getOrDefault(event.getId(), 0L);
+            dto.setRegistrationCount((int) regCount);
+            dto.setUserRegistered(registeredEventIds.contains(event.getId()));
+            dto.setWaitlistPosition(waitlistPositions.get(event.getId()));
+
+            // Calculate available slots
+            if (event.getMaxVolunteers() != null) {
+                dto.setAvailableSlots(event.getMaxVolunteers() - (int) regCount);
+            } else {
+                dto.setAvailableSlots(null); // Unlimited
+            }
+            dtos.add(dto);
+        }
+        return dtos;
     }
 }
\ No newline at end of file
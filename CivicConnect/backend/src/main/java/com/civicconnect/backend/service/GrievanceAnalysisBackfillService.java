@@ -0,0 +1,88 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.model.Grievance;
+import com.civicconnect.backend.repository.GrievanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Parses aiAnalysisJson of rows created before the structured columns existed.
+// Each chunk runs in its own transaction so a large table never sits in one persistence context.
+// Every row read is stamped with aiFieldsParsedAt, parsed or not, so later runs skip it.
+@Service
+public class GrievanceAnalysisBackfillService {
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private AiService aiService;
+
+    @Value("${civic.ai.backfill.chunk-size:500}")
+    private int chunkSize;
+
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public GrievanceAnalysisBackfillService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        Map<String, Long> result = backfill();
+        System.out.println("✅ AI analysis backfill finished: " + result);
+    }
+
+    public Map<String, Long> backfill() {
+        if (!running.compareAndSet(false, true)) {
+            return Map.of("alreadyRunning", 1L);
+        }
+        long updated = 0;
+        long failed = 0;
+        try {
+            long lastId = 0L;
+            while (true) {
+                final long afterId = lastId;
+                long[] chunkResult = transactionTemplate.execute(status -> processChunk(afterId));
+                if (chunkResult == null || chunkResult[0] == 0) break;
+                updated += chunkResult[1];
+                failed += chunkResult[0] - chunkResult[1];
+                lastId = chunkResult[2];
+            }
+        } finally {
+            running.set(false);
+        }
+        return Map.of("updated", updated, "failed", failed);
+    }
+
+    // Returns {rowsRead, rowsUpdated, lastIdSeen}
+    private long[] processChunk(long afterId) {
+        List<Grievance> chunk = grievanceRepository.findUnstructuredAnalysisAfter(afterId, PageRequest.of(0, chunkSize));
+        long updated = 0;
+        long lastId = afterId;
+        for (Grievance grievance : chunk) {
+            lastId = grievance.getId();
+            try {
+                aiService.applyActionPlanFields(grievance, grievance.getAiAnalysisJson());
+                updated++;
+            } catch (Exception e) {
+                grievance.setAiFieldsParsedAt(LocalDateTime.now());
+                System.err.println("❌ Backfill skipped grievance " + grievance.getId() + ": " + e.getMessage());
+            }
+        }
+        return new long[] { chunk.size(), updated, lastId };
+    }
+}
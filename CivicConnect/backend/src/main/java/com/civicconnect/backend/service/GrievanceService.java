@@ -0,0 +1,113 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.model.Grievance;
+import com.civicconnect.backend.model.User;
+import com.civicconnect.backend.repository.GrievanceRepository;
+import com.civicconnect.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Grievance writes. Each runs in one transaction so the row and its outbox email commit (or roll back) together.
+@Service
+public class GrievanceService {
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private AiService aiService;
+
+    @Autowired
+    private NotificationDigestService notificationDigestService;
+
+    @Autowired
+    private NotificationTemplateEngine templateEngine;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public Grievance createGrievance(Grievance grievance, Long userId) {
+        // Loaded by id (not a reference): the response embeds the user and the email needs their address
+        User user = userRepository.findById(userId).orElseThrow();
+
+        grievance.setUser(user);
+        if (grievance.getStatus() == null) {
+            grievance.setStatus("PENDING");
+        }
+
+        Grievance saved = grievanceRepository.save(grievance);
+
+        // 1. Trigger AI Analysis (Async - won't slow down response)
+        // Started after commit so the async worker can see the new row
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aiService.analyzeGrievance(saved.getId());
+            }
+        });
+
+        // 2. Send Email (outbox row in this transaction; a failure rolls the grievance back too)
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("username", user.getUsername());
+        vars.put("title", saved.getTitle());
+        vars.put("category", saved.getCategory());
+        vars.put("id", saved.getId());
+        emailService.sendTemplatedEmail(user.getEmail(), templateEngine.render("grievance-received", vars));
+
+        return saved;
+    }
+
+    @Transactional
+    public Grievance updateStatus(Long id, Map<String, String> payload) {
+        Grievance grievance = grievanceRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Grievance not found"));
+
+        String oldStatus = grievance.getStatus();
+        String newStatus = payload.get("status");
+
+        if (payload.containsKey("status")) {
+            grievance.setStatus(newStatus);
+        }
+
+        if (payload.containsKey("resolutionRemark")) {
+            grievance.setResolutionRemark(payload.get("resolutionRemark"));
+        }
+
+        Grievance updated = grievanceRepository.save(grievance);
+
+        // Live push to the citizen's open dashboard (delivered after commit)
+        if (updated.getUser() != null) {
+            eventPublisher.publishEvent(new GrievanceStatusChangedEvent(updated.getUser().getId(), updated.getId(),
+                    updated.getTitle(), updated.getStatus(), updated.getResolutionRemark(), LocalDateTime.now()));
+        }
+
+        if (newStatus != null && !newStatus.equals(oldStatus) && updated.getUser() != null) {
+            Map<String, Object> vars = new HashMap<>();
+            vars.put("id", updated.getId());
+            vars.put("title", updated.getTitle());
+            vars.put("status", newStatus);
+            vars.put("remarkLine", updated.getResolutionRemark() != null ? "Admin Remark: " + updated.getResolutionRemark() : "");
+
+            // Coalesced per citizen: bulk admin updates arrive as one digest email. Not caught: with
+            // digests disabled this writes the outbox in this transaction (see EmailService).
+            notificationDigestService.submit(updated.getUser().getEmail(), templateEngine.render("grievance-status", vars));
+        }
+
+        return updated;
+    }
+}
@@ -0,0 +1,8 @@
+package com.civicconnect.backend.service;
+
+import java.time.LocalDateTime;
+
+// Published by GrievanceController.updateStatus; delivered to the citizen's live channel after commit
+public record GrievanceStatusChangedEvent(Long userId, Long grievanceId, String title, String status,
+                                          String resolutionRemark, LocalDateTime changedAt) {
+}
@@ -0,0 +1,104 @@
+package com.civicconnect.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Per-citizen live channel for grievance updates. Subscribers are async SseEmitters indexed by
+// user id, so a push touches only that user's connections and idle connections hold no thread.
+// Events are delivered after the status change commits, never for a rolled-back update. Pushes and
+// heartbeats only enqueue on each connection's SseSubscriber; the writes run on virtual threads.
+@Service
+public class GrievanceUpdateHub {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${civic.grievances.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    // A connection further behind than this is dropped and left to reconnect
+    @Value("${civic.grievances.stream.max-pending:100}")
+    private int maxPending;
+
+    private final Map<Long, Set<SseSubscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        SseSubscriber subscriber = new SseSubscriber(emitter, executor, maxPending, closed -> unsubscribe(userId, closed));
+        Runnable remove = () -> {
+            subscriber.close();
+            unsubscribe(userId, subscriber);
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        // Added inside compute: unsubscribe drops empty sets under the same key lock, so the
+        // set cannot be removed between looking it up and adding to it
+        subscribersByUser.compute(userId, (id, subscribers) -> {
+            Set<SseSubscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscriber.send(SseEmitter.event().name("connected").data("ok"));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(GrievanceStatusChangedEvent event) {
+        Set<SseSubscriber> subscribers = subscribersByUser.get(event.userId());
+        if (subscribers == null || subscribers.isEmpty()) return;
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (Exception e) {
+            System.err.println("Failed to serialize grievance update: " + e.getMessage());
+            return;
+        }
+        for (SseSubscriber subscriber : subscribers) {
+            subscriber.send(SseEmitter.event()
+                    .id(String.valueOf(event.grievanceId()))
+                    .name("grievance-update")
+                    .data(payload, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${civic.grievances.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<SseSubscriber> subscribers : subscribersByUser.values()) {
+            for (SseSubscriber subscriber : subscribers) {
+                subscriber.send(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public int getConnectionCount() {
+        return subscribersByUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void unsubscribe(Long userId, SseSubscriber subscriber) {
+        subscribersByUser.computeIfPresent(userId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
@@ -0,0 +1,229 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.LeaderboardEntryDto;
+import com.civicconnect.backend.model.EventCategory;
+import com.civicconnect.backend.repository.EventRegistrationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Volunteer leaderboard by attended events, city-wide and per category. Each board keeps a
+// Fenwick tree over scores (rank of a user = 1 + number of users with a higher score, O(log n))
+// and a skip list ordered by score (top N = first N entries, O(log n + N)). Boards are rebuilt from
+// one GROUP BY at startup; after that only the volunteers in an attendance batch (or whose
+// registration moves off ATTENDED) are re-read.
+// Hours are attendedEvents x the configured event duration, so they rank the same way.
+@Service
+public class LeaderboardService {
+
+    private static final int MAX_LIMIT = 100;
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Value("${civic.events.lifecycle.duration-hours:4}")
+    private long durationHours;
+
+    private volatile Boards boards = new Boards(new Ranking(), new ConcurrentHashMap<>());
+    private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+    // Volunteers updated while a rebuild was reading; re-read once the new boards are in place
+    private final Set<Long> touchedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    private record Boards(Ranking cityWide, Map<EventCategory, Ranking> byCategory) {
+        Ranking board(EventCategory category) {
+            return category == null ? cityWide : byCategory.computeIfAbsent(category, c -> new Ranking());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    // Periodic rebuild picks up attendance recorded through other nodes
+    @Scheduled(fixedDelayString = "${civic.leaderboard.rebuild-ms:3600000}", initialDelayString = "${civic.leaderboard.rebuild-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public List<LeaderboardEntryDto> getTop(EventCategory category, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<LeaderboardEntryDto> entries = new ArrayList<>(max);
+        int rank = 0;
+        int previousScore = -1;
+        for (Ranking.Entry entry : boards.board(category).ranked) {
+            if (entries.size() >= max) break;
+            // Standard competition ranking: ties share a rank, the next distinct score skips ahead
+            if (entry.score() != previousScore) rank = entries.size() + 1;
+            previousScore = entry.score();
+            entries.add(toDto(rank, entry.userId(), entry.score()));
+        }
+        return entries;
+    }
+
+    // null when the user has no attended events on this board
+    public LeaderboardEntryDto getRank(Long userId, EventCategory category) {
+        Ranking board = boards.board(category);
+        synchronized (board) {
+            Integer score = board.scores.get(userId);
+            return score == null ? null : toDto(board.rankOf(score), userId, score);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAttendanceChanged(AttendanceChangedEvent change) {
+        if (rebuilding) touchedDuringRebuild.addAll(change.userIds());
+        try {
+            refresh(change.userIds());
+        } catch (Exception e) {
+            System.err.println("❌ Leaderboard update failed for event " + change.eventId() + ": " + e.getMessage());
+        }
+    }
+
+    // A registration leaving ATTENDED takes an attended event off the user's score. Only users
+    // already on the boards can lose one, so ordinary sign-ups and cancellations cost no query.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRegistrationChanged(RegistrationChangedEvent change) {
+        if ("ATTENDED".equals(change.status())) return;
+        if (rebuilding) touchedDuringRebuild.add(change.userId());
+        if (!boards.cityWide().scores.containsKey(change.userId())) return;
+        try {
+            refresh(List.of(change.userId()));
+        } catch (Exception e) {
+            System.err.println("❌ Leaderboard update failed for user " + change.userId() + ": " + e.getMessage());
+        }
+    }
+
+    // Re-reads the users' totals and sets them, so replays and overlapping updates are harmless
+    private void refresh(Collection<Long> userIds) {
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK, ids.size()));
+            Map<Long, Map<EventCategory, Integer>> totals = new HashMap<>();
+            for (Long userId : chunk) totals.put(userId, new EnumMap<>(EventCategory.class));
+            for (Object[] row : eventRegistrationRepository.countAttendedByUserAndCategory(chunk)) {
+                usernames.put((Long) row[0], (String) row[1]);
+                totals.get((Long) row[0]).put((EventCategory) row[2], ((Long) row[3]).intValue());
+            }
+
+            Boards current = boards;
+            totals.forEach((userId, byCategory) -> {
+                int total = 0;
+                for (EventCategory category : EventCategory.values()) {
+                    int score = byCategory.getOrDefault(category, 0);
+                    total += score;
+                    if (score > 0 || current.byCategory().containsKey(category)) {
+                        current.board(category).set(userId, score);
+                    }
+                }
+                current.cityWide().set(userId, total);
+            });
+        }
+    }
+
+    private synchronized void rebuild() {
+        rebuilding = true;
+        touchedDuringRebuild.clear();
+        try {
+            long started = System.currentTimeMillis();
+            Map<Long, Integer> totals = new HashMap<>();
+            Map<EventCategory, Ranking> byCategory = new EnumMap<>(EventCategory.class);
+            for (Object[] row : eventRegistrationRepository.countAttendedByUserAndCategory()) {
+                Long userId = (Long) row[0];
+                int score = ((Long) row[3]).intValue();
+                usernames.put(userId, (String) row[1]);
+                byCategory.computeIfAbsent((EventCategory) row[2], c -> new Ranking()).set(userId, score);
+                totals.merge(userId, score, Integer::sum);
+            }
+            Ranking cityWide = new Ranking();
+            totals.forEach(cityWide::set);
+
+            boards = new Boards(cityWide, new ConcurrentHashMap<>(byCategory));
+            rebuilding = false;
+            if (!touchedDuringRebuild.isEmpty()) {
+                refresh(new ArrayList<>(touchedDuringRebuild));
+            }
+            System.out.println("✅ Leaderboard rebuilt: " + totals.size() + " volunteers in "
+                    + (System.currentTimeMillis() - started) + " ms");
+        } catch (Exception e) {
+            System.err.println("❌ Leaderboard rebuild failed: " + e.getMessage());
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    private LeaderboardEntryDto toDto(int rank, Long userId, int score) {
+        return new LeaderboardEntryDto(rank, userId, usernames.get(userId), score, score * durationHours);
+    }
+
+    // One board. Writers synchronize on the board; top-N readers walk the skip list without locking.
+    static final class Ranking {
+
+        record Entry(int score, long userId) {
+        }
+
+        private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::score).reversed()
+                .thenComparingLong(Entry::userId);
+
+        final Map<Long, Integer> scores = new ConcurrentHashMap<>();
+        final ConcurrentSkipListSet<Entry> ranked = new ConcurrentSkipListSet<>(ORDER);
+        // Fenwick tree over scores 1..capacity: prefix(s) = number of users with score <= s
+        private int[] tree = new int[65];
+
+        synchronized void set(long userId, int score) {
+            Integer old = scores.get(userId);
+            if (old != null && old == score) return;
+            if (old != null) {
+                add(old, -1);
+                ranked.remove(new Entry(old, userId));
+                scores.remove(userId);
+            }
+            if (score > 0) {
+                ensureCapacity(score);
+                add(score, 1);
+                scores.put(userId, score);
+                ranked.add(new Entry(score, userId));
+            }
+        }
+
+        // Caller holds the board's lock
+        int rankOf(int score) {
+            return 1 + scores.size() - prefix(score);
+        }
+
+        private void add(int score, int delta) {
+            for (int i = score; i < tree.length; i += i & -i) tree[i] += delta;
+        }
+
+        private int prefix(int score) {
+            int sum = 0;
+            for (int i = Math.min(score, tree.length - 1); i > 0; i -= i & -i) sum += tree[i];
+            return sum;
+        }
+
+        // Scores only grow one attended event at a time, so resizes are rare
+        private void ensureCapacity(int score) {
+            if (score < tree.length) return;
+            tree = new int[Math.max(score + 1, tree.length * 2)];
+            for (int s : scores.values()) add(s, 1);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.civicconnect.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Collapses bursts of notifications per recipient. The first message for a recipient opens a window;
+// everything that arrives for them before it closes is merged into one digest email. Deadlines are
+// kept in time buckets (one per tick) so each flush only touches recipients that are actually due.
+// Bucket entries name the digest generation they were scheduled for: once a digest is flushed
+// (early, because it filled up, or on time) a later digest for the same recipient gets a new
+// generation and the old entries no longer match it.
+@Service
+public class NotificationDigestService {
+
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${civic.notifications.digest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${civic.notifications.digest.window-seconds:120}")
+    private long windowSeconds;
+
+    @Value("${civic.notifications.digest.tick-ms:5000}")
+    private long tickMillis;
+
+    // A digest this large is sent on the next tick rather than waiting for its window
+    @Value("${civic.notifications.digest.max-items:50}")
+    private int maxItems;
+
+    private final Map<String, Digest> pending = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Set<Due>> dueBuckets = new ConcurrentSkipListMap<>();
+    private final AtomicLong generations = new AtomicLong();
+
+    // Flushes write the outbox in a transaction of their own: add() may run in afterCommit, where a
+    // REQUIRED call would join the already-committed transaction and the insert would be lost
+    private final TransactionTemplate flushTransaction;
+
+    private record Item(String subject, String body, String html) {
+    }
+
+    private record Due(String recipient, long generation) {
+    }
+
+    private static class Digest {
+        private final long generation;
+        private final List<Item> items = new ArrayList<>();
+
+        Digest(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    public NotificationDigestService(PlatformTransactionManager transactionManager) {
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void submit(String recipient, NotificationTemplateEngine.RenderedMessage message) {
+        submit(recipient, new Item(message.subject(), message.text(), message.html()));
+    }
+
+    public void submit(String recipient, String subject, String body) {
+        submit(recipient, new Item(subject, body, null));
+    }
+
+    // Queued only once the caller's transaction commits, so rolled-back changes never notify anyone
+    private void submit(String recipient, Item item) {
+        if (recipient == null || recipient.isBlank()) return;
+        if (!enabled) {
+            emailService.enqueue(recipient, item.subject(), item.body(), item.html(), null);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(recipient, item);
+                }
+            });
+        } else {
+            add(recipient, item);
+        }
+    }
+
+    private void add(String recipient, Item item) {
+        String key = recipient.trim().toLowerCase();
+        long[] fullGeneration = { -1 };
+        pending.compute(key, (k, digest) -> {
+            if (digest == null) {
+                digest = new Digest(generations.incrementAndGet());
+                long bucket = (System.currentTimeMillis() + windowSeconds * 1000) / tickMillis + 1;
+                schedule(bucket, new Due(k, digest.generation));
+            }
+            digest.items.add(item);
+            if (digest.items.size() == maxItems) fullGeneration[0] = digest.generation;
+            return digest;
+        });
+        if (fullGeneration[0] >= 0) {
+            // Due on the next tick rather than inline, keeping the caller's commit path short
+            schedule(System.currentTimeMillis() / tickMillis, new Due(key, fullGeneration[0]));
+        }
+    }
+
+    private void schedule(long bucket, Due due) {
+        dueBuckets.computeIfAbsent(bucket, b -> ConcurrentHashMap.newKeySet()).add(due);
+    }
+
+    @Scheduled(fixedDelayString = "${civic.notifications.digest.tick-ms:5000}")
+    public void flushDue() {
+        long currentBucket = System.currentTimeMillis() / tickMillis;
+        ConcurrentNavigableMap<Long, Set<Due>> dueNow = dueBuckets.headMap(currentBucket, true);
+        for (Long bucket : new ArrayList<>(dueNow.keySet())) {
+            Set<Due> entries = dueBuckets.remove(bucket);
+            if (entries == null) continue;
+            for (Due due : entries) {
+                flush(due.recipient(), take(due.recipient(), due.generation()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        dueBuckets.clear();
+        for (String recipient : new ArrayList<>(pending.keySet())) {
+            flush(recipient, pending.remove(recipient));
+        }
+    }
+
+    // Removes the recipient's open digest only if it is the generation the bucket entry was made for;
+    // an entry left over from an already-flushed digest finds a newer one (or none) and takes nothing
+    private Digest take(String recipient, long generation) {
+        Digest[] taken = { null };
+        pending.computeIfPresent(recipient, (k, digest) -> {
+            if (digest.generation != generation) return digest;
+            taken[0] = digest;
+            return null;
+        });
+        return taken[0];
+    }
+
+    private void flush(String recipient, Digest digest) {
+        if (digest == null || digest.items.isEmpty()) return;
+        try {
+            flushTransaction.executeWithoutResult(status -> {
+                if (digest.items.size() == 1) {
+                    Item item = digest.items.get(0);
+                    emailService.enqueue(recipient, item.subject(), item.body(), item.html(), null);
+                } else {
+                    emailService.enqueue(recipient, "CivicConnect: " + digest.items.size() + " new updates",
+                            buildDigestBody(digest.items), buildDigestHtml(digest.items), null);
+                }
+            });
+        } catch (Exception e) {
+            System.err.println("Failed to queue digest for " + recipient + ": " + e.getMessage());
+        }
+    }
+
+    private String buildDigestBody(List<Item> items) {
+        StringBuilder body = new StringBuilder("Hello,\n\nHere is a summary of your recent updates:\n");
+        int index = 1;
+        for (Item item : items) {
+            body.append("\n").append(index++).append(". ").append(item.subject()).append("\n");
+            body.append(item.body().strip()).append("\n");
+        }
+        body.append("\nLogin to the dashboard to see full details.\n\nCivicConnect Team");
+        return body.toString();
+    }
+
+    // Same layout as the text part; each item keeps its own HTML fragment (plain-text items are escaped)
+    private String buildDigestHtml(List<Item> items) {
+        StringBuilder html = new StringBuilder("<p>Hello,</p>\n<p>Here is a summary of your recent updates:</p>\n");
+        int index = 1;
+        for (Item item : items) {
+            html.append("<h3>").append(index++).append(". ").append(HtmlUtils.htmlEscape(item.subject())).append("</h3>\n");
+            if (item.html() != null) {
+                html.append(item.html().strip()).append("\n");
+            } else {
+                html.append("<p>").append(HtmlUtils.htmlEscape(item.body().strip()).replace("\n", "<br>")).append("</p>\n");
+            }
+        }
+        html.append("<p>Login to the dashboard to see full details.</p>\n<p>CivicConnect Team</p>");
+        return html.toString();
+    }
+}
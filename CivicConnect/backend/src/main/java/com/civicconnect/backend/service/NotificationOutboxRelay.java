@@ -0,0 +1,171 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.model.NotificationOutbox;
+import com.civicconnect.backend.repository.NotificationOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Drains notification_outbox in batches. Each batch is claimed with a lease (safe with several
+// nodes), sent over a single SMTP connection via send(MimeMessage...), and failures are retried
+// with exponential backoff until max-attempts, after which the row is parked as FAILED.
+@Service
+public class NotificationOutboxRelay {
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${spring.mail.username}")
+    private String fromAddress;
+
+    @Value("${civic.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${civic.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${civic.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${civic.outbox.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${civic.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public NotificationOutboxRelay(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${civic.outbox.poll-interval-ms:2000}")
+    public void relay() {
+        try {
+            while (drainBatch() == batchSize) {
+                // keep going while full batches are available
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Outbox relay error: " + e.getMessage());
+        }
+    }
+
+    private int drainBatch() {
+        String owner = UUID.randomUUID().toString();
+        List<NotificationOutbox> batch = transactionTemplate.execute(status -> claimBatch(owner));
+        if (batch == null || batch.isEmpty()) return 0;
+
+        Map<MimeMessage, NotificationOutbox> byMessage = new IdentityHashMap<>();
+        Map<Long, String> failures = new HashMap<>();
+        for (NotificationOutbox entry : batch) {
+            try {
+                byMessage.put(toMimeMessage(entry), entry);
+            } catch (MessagingException e) {
+                failures.put(entry.getId(), e.getMessage());
+            }
+        }
+
+        if (!byMessage.isEmpty()) {
+            try {
+                // One SMTP connection for the whole batch
+                mailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((message, error) -> {
+                    NotificationOutbox entry = byMessage.get(message);
+                    if (entry != null) failures.put(entry.getId(), error.getMessage());
+                });
+                if (e.getFailedMessages().isEmpty()) {
+                    byMessage.values().forEach(entry -> failures.put(entry.getId(), e.getMessage()));
+                }
+            } catch (MailException e) {
+                byMessage.values().forEach(entry -> failures.put(entry.getId(), e.getMessage()));
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        for (NotificationOutbox entry : batch) {
+            if (!failures.containsKey(entry.getId())) sentIds.add(entry.getId());
+        }
+        transactionTemplate.executeWithoutResult(status -> recordResults(owner, sentIds, failures));
+        if (!failures.isEmpty()) {
+            System.err.println("Outbox batch: " + sentIds.size() + " sent, " + failures.size() + " will be retried");
+        }
+        return batch.size();
+    }
+
+    private List<NotificationOutbox> claimBatch(String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = outboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+        if (dueIds.isEmpty()) return List.of();
+        outboxRepository.claim(dueIds, owner, now.plusSeconds(leaseSeconds), now);
+        return outboxRepository.findByLeaseOwnerAndStatus(owner, "SENDING");
+    }
+
+    private void recordResults(String owner, List<Long> sentIds, Map<Long, String> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, owner, now);
+        }
+        if (failures.isEmpty()) return;
+        for (NotificationOutbox entry : outboxRepository.findAllById(failures.keySet())) {
+            if (!owner.equals(entry.getLeaseOwner())) continue; // lease expired and another relay took over
+            int attempts = entry.getAttempts() + 1;
+            String error = failures.get(entry.getId());
+            entry.setAttempts(attempts);
+            entry.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+            entry.setLeaseOwner(null);
+            entry.setLeaseUntil(null);
+            if (attempts >= maxAttempts) {
+                entry.setStatus("FAILED");
+                System.err.println("❌ Giving up on email " + entry.getId() + " to " + entry.getRecipient() + ": " + error);
+            } else {
+                long delay = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(attempts - 1, 20));
+                entry.setStatus("PENDING");
+                entry.setNextAttemptAt(now.plusSeconds(delay));
+            }
+        }
+    }
+
+    // A fixed Message-ID per outbox row lets receiving servers drop duplicates if a retry races a slow success
+    private MimeMessage toMimeMessage(NotificationOutbox entry) throws MessagingException {
+        String messageId = "<outbox-" + entry.getId() + "@civicconnect>";
+        MimeMessage message = new MimeMessage(mailSender.createMimeMessage().getSession()) {
+            @Override
+            protected void updateMessageID() throws MessagingException {
+                setHeader("Message-ID", messageId);
+            }
+        };
+        boolean multipart = entry.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, multipart, "UTF-8");
+        helper.setFrom(fromAddress);
+        helper.setTo(entry.getRecipient());
+        helper.setSubject(entry.getSubject());
+        if (multipart) {
+            helper.setText(entry.getBody(), entry.getHtmlBody());
+        } else {
+            helper.setText(entry.getBody());
+        }
+        return message;
+    }
+}
@@ -0,0 +1,162 @@
+package com.civicconnect.backend.service;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Email/SMS templates from classpath:notifications/{name}.txt (first line "Subject: ...") and optional
+// {name}.html. Each template is parsed once into literal/placeholder segments and cached; rendering
+// just walks the segments into a reused buffer. {{var}} placeholders are HTML-escaped in the HTML part.
+@Component
+public class NotificationTemplateEngine {
+
+    private static final String SUBJECT_PREFIX = "Subject:";
+
+    private final Map<String, Template> cache = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    public record RenderedMessage(String subject, String text, String html) {
+    }
+
+    public RenderedMessage render(String name, Map<String, ?> vars) {
+        return load(name).render(vars, buffer.get());
+    }
+
+    // For fan-outs: substitutes the values shared by every recipient once, leaving only the
+    // per-recipient placeholders for PreparedMessage.render
+    public PreparedMessage prepare(String name, Map<String, ?> sharedVars) {
+        return new PreparedMessage(load(name).bind(sharedVars), buffer);
+    }
+
+    private Template load(String name) {
+        return cache.computeIfAbsent(name, n -> {
+            String text = readResource("notifications/" + n + ".txt");
+            if (text == null) {
+                throw new IllegalArgumentException("Unknown notification template: " + n);
+            }
+            String subject = null;
+            if (text.startsWith(SUBJECT_PREFIX)) {
+                int lineEnd = text.indexOf('\n');
+                subject = (lineEnd < 0 ? text.substring(SUBJECT_PREFIX.length()) : text.substring(SUBJECT_PREFIX.length(), lineEnd)).trim();
+                text = lineEnd < 0 ? "" : text.substring(lineEnd + 1);
+            }
+            text = text.strip();
+            String html = readResource("notifications/" + n + ".html");
+            return new Template(
+                    subject != null ? Segments.parse(subject, false) : null,
+                    Segments.parse(text, false),
+                    html != null ? Segments.parse(html, true) : null);
+        });
+    }
+
+    private String readResource(String path) {
+        ClassPathResource resource = new ClassPathResource(path);
+        if (!resource.exists()) return null;
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read template " + path, e);
+        }
+    }
+
+    public static class PreparedMessage {
+        private final Template template;
+        private final ThreadLocal<StringBuilder> buffer;
+
+        private PreparedMessage(Template template, ThreadLocal<StringBuilder> buffer) {
+            this.template = template;
+            this.buffer = buffer;
+        }
+
+        public RenderedMessage render(Map<String, ?> recipientVars) {
+            return template.render(recipientVars, buffer.get());
+        }
+    }
+
+    private record Template(Segments subject, Segments text, Segments html) {
+
+        RenderedMessage render(Map<String, ?> vars, StringBuilder out) {
+            return new RenderedMessage(
+                    subject != null ? subject.render(vars, out) : null,
+                    text.render(vars, out),
+                    html != null ? html.render(vars, out) : null);
+        }
+
+        Template bind(Map<String, ?> vars) {
+            return new Template(
+                    subject != null ? subject.bind(vars) : null,
+                    text.bind(vars),
+                    html != null ? html.bind(vars) : null);
+        }
+    }
+
+    // Alternating literal text (String) and placeholder names (Placeholder)
+    private record Segments(List<Object> parts, boolean html) {
+
+        private record Placeholder(String name) {
+        }
+
+        static Segments parse(String source, boolean html) {
+            List<Object> parts = new ArrayList<>();
+            int pos = 0;
+            while (pos < source.length()) {
+                int open = source.indexOf("{{", pos);
+                int close = open < 0 ? -1 : source.indexOf("}}", open + 2);
+                if (open < 0 || close < 0) {
+                    parts.add(source.substring(pos));
+                    break;
+                }
+                if (open > pos) parts.add(source.substring(pos, open));
+                parts.add(new Placeholder(source.substring(open + 2, close).trim()));
+                pos = close + 2;
+            }
+            return new Segments(List.copyOf(parts), html);
+        }
+
+        String render(Map<String, ?> vars, StringBuilder out) {
+            out.setLength(0);
+            for (Object part : parts) {
+                if (part instanceof Placeholder placeholder) {
+                    out.append(format(vars.get(placeholder.name())));
+                } else {
+                    out.append((String) part);
+                }
+            }
+            return out.toString();
+        }
+
+        // Substitutes the given vars and merges neighbouring literals; unknown placeholders stay
+        Segments bind(Map<String, ?> vars) {
+            List<Object> bound = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            for (Object part : parts) {
+                if (part instanceof Placeholder placeholder && !vars.containsKey(placeholder.name())) {
+                    if (!literal.isEmpty()) {
+                        bound.add(literal.toString());
+                        literal.setLength(0);
+                    }
+                    bound.add(placeholder);
+                } else if (part instanceof Placeholder placeholder) {
+                    literal.append(format(vars.get(placeholder.name())));
+                } else {
+                    literal.append((String) part);
+                }
+            }
+            if (!literal.isEmpty()) bound.add(literal.toString());
+            return new Segments(List.copyOf(bound), html);
+        }
+
+        private String format(Object value) {
+            String text = value == null ? "" : value.toString();
+            return html ? HtmlUtils.htmlEscape(text) : text;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.ParticipationSummaryDto;
+import com.civicconnect.backend.model.ParticipationSummary;
+import com.civicconnect.backend.repository.ParticipationSummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Keeps participation_summaries in step with registration status changes. Callers record each
+// transition inside the transaction that changes the registration, so the counts commit or roll
+// back with it. A user without a row yet gets one built from the registrations table instead.
+@Service
+public class ParticipationSummaryService {
+
+    @Autowired
+    private ParticipationSummaryRepository summaryRepository;
+
+    // from is null for a brand-new registration
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Long userId, String from, String to) {
+        if (to.equals(from)) return;
+        int[] delta = new int[4];
+        bump(delta, from, -1);
+        bump(delta, to, 1);
+        if (summaryRepository.applyDelta(List.of(userId), delta[0], delta[1], delta[2], delta[3]) == 0) {
+            summaryRepository.insertFromRegistrations(userId);
+        }
+    }
+
+    // Check-in: the same REGISTERED -> ATTENDED transition for many users, one UPDATE
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAttendance(Collection<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        if (summaryRepository.applyDelta(userIds, -1, 0, 1, 0) < userIds.size()) {
+            Set<Long> missing = new HashSet<>(userIds);
+            missing.removeAll(summaryRepository.findExistingUserIds(userIds));
+            missing.forEach(summaryRepository::insertFromRegistrations);
+        }
+    }
+
+    public ParticipationSummaryDto getSummary(Long userId) {
+        ParticipationSummary summary = summaryRepository.findById(userId).orElseGet(ParticipationSummary::new);
+        return new ParticipationSummaryDto(summary.getRegistered(), summary.getWaitlisted(), summary.getAttended(),
+                summary.getCancelled(),
+                summary.getRegistered() + summary.getWaitlisted() + summary.getAttended() + summary.getCancelled());
+    }
+
+    // Creates rows for existing users and repairs any drift on startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcile() {
+        int created = summaryRepository.insertMissing();
+        int updated = summaryRepository.reconcileAll();
+        System.out.println("✅ Reconciled participation summaries for " + updated + " users (" + created + " new)");
+    }
+
+    // delta layout: registered, waitlisted, attended, cancelled
+    private static void bump(int[] delta, String status, int by) {
+        if (status == null) return;
+        switch (status) {
+            case "REGISTERED" -> delta[0] += by;
+            case "WAITLISTED" -> delta[1] += by;
+            case "ATTENDED" -> delta[2] += by;
+            case "CANCELLED" -> delta[3] += by;
+            default -> { }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.civicconnect.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Converts user-entered mobile numbers to E.164 once, at registration, so senders never have to
+@Component
+public class PhoneNumberNormalizer {
+
+    // Assumed when the user leaves out the country code (India for this deployment)
+    @Value("${civic.sms.default-country-code:+91}")
+    private String defaultCountryCode;
+
+    @Value("${civic.sms.national-number-length:10}")
+    private int nationalNumberLength;
+
+    public String toE164(String raw) {
+        if (raw == null || raw.isBlank()) return raw;
+        String trimmed = raw.trim();
+        String digits = trimmed.replaceAll("[^0-9]", "");
+        if (digits.isEmpty()) return trimmed;
+
+        if (trimmed.startsWith("+")) {
+            return "+" + digits;
+        }
+        if (digits.startsWith("00")) {
+            return "+" + digits.substring(2);
+        }
+        String countryDigits = defaultCountryCode.replace("+", "");
+        // Trunk prefix, e.g. 09876543210
+        if (digits.length() == nationalNumberLength + 1 && digits.startsWith("0")) {
+            digits = digits.substring(1);
+        }
+        if (digits.length() == nationalNumberLength) {
+            return "+" + countryDigits + digits;
+        }
+        // Country code typed without the plus, e.g. 919876543210
+        if (digits.length() == nationalNumberLength + countryDigits.length() && digits.startsWith(countryDigits)) {
+            return "+" + digits;
+        }
+        return "+" + digits;
+    }
+}
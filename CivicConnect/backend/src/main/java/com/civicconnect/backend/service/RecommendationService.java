@@ -0,0 +1,275 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.EventResponseDto;
+import com.civicconnect.backend.model.EventCategory;
+import com.civicconnect.backend.repository.EventRegistrationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Precomputed "recommended for you" lists. A background rebuild reads participation history once
+// (keyset-paged projection, no entities), folds it into a preference vector per user - category,
+// venue area and venue location, each signal decayed by age - and scores every upcoming event
+// against it, keeping the top K ids per user. /api/events/recommended is then a map lookup.
+// A user's own registration is applied incrementally: their vector and list are recomputed on the
+// spot against the in-memory event snapshot, without waiting for the next rebuild.
+@Service
+public class RecommendationService {
+
+    private static final double CATEGORY_WEIGHT = 0.55;
+    private static final double AREA_WEIGHT = 0.30;
+    private static final double LOCATION_WEIGHT = 0.15;
+    private static final double LOCATION_SCALE_KM = 10.0;
+    private static final double ATTENDED_BOOST = 1.5; // turning up says more than signing up
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final int SIGNAL_PAGE_SIZE = 5000;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Value("${civic.recommendations.top-k:20}")
+    private int topK;
+
+    @Value("${civic.recommendations.half-life-days:90}")
+    private double halfLifeDays;
+
+    @Value("${civic.recommendations.rebuild-ms:900000}")
+    private long rebuildMillis;
+
+    private volatile Index index = new Index(Map.of(), new ConcurrentHashMap<>(), new long[0], Instant.EPOCH);
+    // Set when events change; the next check rebuilds instead of waiting for rebuild-ms
+    private volatile boolean dirty = true;
+    private volatile boolean rebuilding;
+
+    private record Index(Map<Long, EventResponseDto> events, Map<Long, Profile> profiles, long[] popular, Instant builtAt) {
+    }
+
+    private static final class Profile {
+        final Map<EventCategory, Double> categories = new EnumMap<>(EventCategory.class);
+        final Map<String, Double> areas = new HashMap<>();
+        double categoryTotal;
+        double areaTotal;
+        double latSum;
+        double lngSum;
+        double locationTotal;
+        // Upcoming events the user already registered or waitlisted for, never recommended back
+        final Set<Long> joined = ConcurrentHashMap.newKeySet();
+        volatile long[] top = new long[0];
+
+        void add(EventCategory category, String venue, Double latitude, Double longitude, double weight) {
+            if (category != null) {
+                categories.merge(category, weight, Double::sum);
+                categoryTotal += weight;
+            }
+            String area = venueArea(venue);
+            if (area != null) {
+                areas.merge(area, weight, Double::sum);
+                areaTotal += weight;
+            }
+            if (latitude != null && longitude != null) {
+                latSum += latitude * weight;
+                lngSum += longitude * weight;
+                locationTotal += weight;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${civic.recommendations.check-ms:60000}", initialDelayString = "${civic.recommendations.check-ms:60000}")
+    public void refresh() {
+        if (dirty || index.builtAt().isBefore(Instant.now().minusMillis(rebuildMillis))) {
+            rebuild();
+        }
+    }
+
+    public List<EventResponseDto> getRecommendations(Long userId, int limit) {
+        Index current = index;
+        int max = Math.max(1, Math.min(limit, topK));
+        LocalDateTime now = LocalDateTime.now();
+        Profile profile = current.profiles().get(userId);
+
+        List<EventResponseDto> result = new ArrayList<>(max);
+        Set<Long> seen = new HashSet<>();
+        if (profile != null) {
+            collect(current, profile.top, profile, now, max, result, seen);
+        }
+        // Users with little or no history are topped up with popular upcoming events
+        collect(current, current.popular(), profile, now, max, result, seen);
+        return result;
+    }
+
+    private static void collect(Index current, long[] ids, Profile profile, LocalDateTime now, int max,
+                                List<EventResponseDto> result, Set<Long> seen) {
+        for (long id : ids) {
+            if (result.size() >= max) return;
+            EventResponseDto event = current.events().get(id);
+            // Events that started since the last rebuild or were cancelled meanwhile are skipped
+            if (event == null || !event.getEventDate().isAfter(now)) continue;
+            if (profile != null && profile.joined.contains(id)) continue;
+            if (seen.add(id)) result.add(event);
+        }
+    }
+
+    // Applies the user's own sign-ups right away; everything else waits for the next rebuild
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRegistrationChanged(RegistrationChangedEvent change) {
+        // The running rebuild may have read history before this commit and would drop the update
+        if (rebuilding) dirty = true;
+        Index current = index;
+        EventResponseDto event = current.events().get(change.eventId());
+        if (event == null) return;
+        Profile profile = current.profiles().computeIfAbsent(change.userId(), id -> new Profile());
+        synchronized (profile) {
+            if ("CANCELLED".equals(change.status())) {
+                if (!profile.joined.remove(change.eventId())) return;
+            } else {
+                // A waitlist promotion arrives as a second change for the same row; count it once
+                if (!profile.joined.add(change.eventId())) return;
+                profile.add(event.getCategory(), event.getVenue(), event.getLatitude(), event.getLongitude(), 1.0);
+            }
+            profile.top = rank(profile, current.events().values());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventChanged(EventChangedEvent change) {
+        dirty = true;
+    }
+
+    private synchronized void rebuild() {
+        // Changes committed while the rebuild runs set dirty again and trigger another pass
+        rebuilding = true;
+        dirty = false;
+        try {
+            long started = System.currentTimeMillis();
+            Instant builtAt = Instant.now();
+            LocalDateTime now = LocalDateTime.now();
+
+            Map<Long, EventResponseDto> events = new HashMap<>();
+            for (EventResponseDto event : eventService.getUpcomingEvents(null)) {
+                events.put(event.getId(), event);
+            }
+
+            Map<Long, Profile> profiles = new ConcurrentHashMap<>();
+            long afterId = 0;
+            while (true) {
+                List<Object[]> page = eventRegistrationRepository.findParticipationSignals(afterId,
+                        PageRequest.of(0, SIGNAL_PAGE_SIZE));
+                if (page.isEmpty()) break;
+                for (Object[] row : page) {
+                    Profile profile = profiles.computeIfAbsent((Long) row[1], id -> new Profile());
+                    Long eventId = (Long) row[2];
+                    LocalDateTime registeredAt = (LocalDateTime) row[7];
+                    String status = (String) row[8];
+                    double ageDays = registeredAt != null ? Math.max(0, Duration.between(registeredAt, now).toHours() / 24.0) : 0;
+                    double weight = Math.pow(0.5, ageDays / halfLifeDays) * ("ATTENDED".equals(status) ? ATTENDED_BOOST : 1.0);
+                    profile.add((EventCategory) row[3], (String) row[4], (Double) row[5], (Double) row[6], weight);
+                    if (events.containsKey(eventId)) profile.joined.add(eventId);
+                }
+                afterId = (Long) page.get(page.size() - 1)[0];
+            }
+
+            for (Profile profile : profiles.values()) {
+                profile.top = rank(profile, events.values());
+            }
+
+            long[] popular = events.values().stream()
+                    .sorted(Comparator.comparingInt(EventResponseDto::getRegistrationCount).reversed()
+                            .thenComparing(EventResponseDto::getEventDate))
+                    .limit(topK * 2L)
+                    .mapToLong(EventResponseDto::getId)
+                    .toArray();
+
+            index = new Index(events, profiles, popular, builtAt);
+            System.out.println("✅ Recommendations rebuilt: " + profiles.size() + " users x " + events.size()
+                    + " upcoming events in " + (System.currentTimeMillis() - started) + " ms");
+        } catch (Exception e) {
+            dirty = true;
+            System.err.println("❌ Recommendation rebuild failed: " + e.getMessage());
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    // Top K upcoming events by score, via a K-sized min-heap
+    private long[] rank(Profile profile, Iterable<EventResponseDto> events) {
+        double centerLat = profile.locationTotal > 0 ? profile.latSum / profile.locationTotal : 0;
+        double centerLng = profile.locationTotal > 0 ? profile.lngSum / profile.locationTotal : 0;
+
+        PriorityQueue<double[]> heap = new PriorityQueue<>(topK + 1, Comparator.comparingDouble(entry -> entry[0]));
+        for (EventResponseDto event : events) {
+            if (profile.joined.contains(event.getId())) continue;
+            double score = 0;
+            if (profile.categoryTotal > 0 && event.getCategory() != null) {
+                score += CATEGORY_WEIGHT * profile.categories.getOrDefault(event.getCategory(), 0.0) / profile.categoryTotal;
+            }
+            String area = venueArea(event.getVenue());
+            if (profile.areaTotal > 0 && area != null) {
+                score += AREA_WEIGHT * profile.areas.getOrDefault(area, 0.0) / profile.areaTotal;
+            }
+            if (profile.locationTotal > 0 && event.getLatitude() != null && event.getLongitude() != null) {
+                double km = distanceKm(centerLat, centerLng, event.getLatitude(), event.getLongitude());
+                score += LOCATION_WEIGHT * Math.exp(-km / LOCATION_SCALE_KM);
+            }
+            if (score <= 0) continue;
+            heap.offer(new double[]{score, event.getId()});
+            if (heap.size() > topK) heap.poll();
+        }
+
+        long[] top = new long[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = (long) heap.poll()[1];
+        }
+        return top;
+    }
+
+    // Venues are free text ("Community Hall, Sector 21, Noida"): the last non-numeric part is the area
+    static String venueArea(String venue) {
+        if (venue == null) return null;
+        String[] parts = venue.split(",");
+        for (int i = parts.length - 1; i >= 0; i--) {
+            String part = parts[i].trim().toLowerCase(Locale.ROOT);
+            if (!part.isEmpty() && !part.chars().allMatch(c -> Character.isDigit(c) || c == ' ' || c == '-')) {
+                return part;
+            }
+        }
+        return null;
+    }
+
+    private static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
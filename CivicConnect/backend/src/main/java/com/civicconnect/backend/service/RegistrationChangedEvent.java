@@ -0,0 +1,6 @@
+package com.civicconnect.backend.service;
+
+// Published by EventService whenever a user's registration for an event changes status
+// (REGISTERED, WAITLISTED, CANCELLED, ...). Listeners react after the transaction commits.
+public record RegistrationChangedEvent(Long eventId, Long userId, String status) {
+}
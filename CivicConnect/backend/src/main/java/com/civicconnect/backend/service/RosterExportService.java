@@ -0,0 +1,175 @@
+package com.civicconnect.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Streams an event's volunteer roster as CSV or XLSX straight to the response. Rows come from a
+// forward-only, read-only JDBC cursor (username, email, mobile, registeredAt, status) and are
+// written as they arrive, so memory stays flat however many volunteers the event has.
+// XLSX is written as a minimal SpreadsheetML package with inline strings, row by row.
+@Service
+public class RosterExportService {
+
+    private static final String[] HEADER = {"Username", "Email", "Mobile", "Registered At", "Status"};
+
+    private static final Pattern PHONE_LIKE = Pattern.compile("[+-][0-9 ]+");
+
+    private static final String ROSTER_SQL =
+            "SELECT u.username, u.email, u.mobile_number, r.registered_at, r.status " +
+            "FROM event_registrations r JOIN users u ON u.id = r.user_id " +
+            "WHERE r.event_id = ? AND r.status <> 'CANCELLED' ORDER BY r.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // MySQL only streams with Integer.MIN_VALUE (set civic.roster.fetch-size in the mysql profile)
+    @Value("${civic.roster.fetch-size:500}")
+    private int fetchSize;
+
+    private interface RowWriter {
+        void write(String[] row) throws IOException;
+    }
+
+    public void writeCsv(Long eventId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write('\uFEFF'); // BOM so Excel opens UTF-8 names correctly
+        RowWriter csv = row -> {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) writer.write(',');
+                writer.write(csvCell(row[i]));
+            }
+            writer.write("\r\n");
+        };
+        csv.write(HEADER);
+        streamRows(eventId, csv);
+        writer.flush();
+    }
+
+    public void writeXlsx(Long eventId, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+
+        putEntry(zip, writer, "[Content_Types].xml",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+                "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+                "<Default Extension=\"xml\" ContentType=\"application/xml\"/>" +
+                "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>" +
+                "<Override PartName=\"/xl/worksheets/sheet1.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>" +
+                "</Types>");
+        putEntry(zip, writer, "_rels/.rels",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.xml\"/>" +
+                "</Relationships>");
+        putEntry(zip, writer, "xl/workbook.xml",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" " +
+                "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">" +
+                "<sheets><sheet name=\"Volunteers\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>");
+        putEntry(zip, writer, "xl/_rels/workbook.xml.rels",
+                "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.xml\"/>" +
+                "</Relationships>");
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+                "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        RowWriter xlsx = row -> {
+            writer.write("<row>");
+            for (String cell : row) {
+                writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writer.write(xmlText(cell));
+                writer.write("</t></is></c>");
+            }
+            writer.write("</row>");
+        };
+        xlsx.write(HEADER);
+        streamRows(eventId, xlsx);
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        zip.finish();
+    }
+
+    private void streamRows(Long eventId, RowWriter rowWriter) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ROSTER_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, eventId);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp registeredAt = rs.getTimestamp(4);
+            try {
+                rowWriter.write(new String[]{
+                        rs.getString(1),
+                        rs.getString(2),
+                        rs.getString(3),
+                        registeredAt != null ? registeredAt.toLocalDateTime().toString() : "",
+                        rs.getString(5)
+                });
+            } catch (IOException e) {
+                // Client went away: abort the cursor instead of reading the rest of the rows
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void putEntry(ZipOutputStream zip, Writer writer, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    // Quotes when needed and neutralises spreadsheet formulas in user-supplied text
+    // (phone numbers such as +919876543210 are left alone)
+    private static String csvCell(String value) {
+        if (value == null) return "";
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0 && !PHONE_LIKE.matcher(value).matches()) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static String xmlText(String value) {
+        if (value == null) return "";
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> sb.append("&amp;");
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '"' -> sb.append("&quot;");
+                default -> {
+                    // XML 1.0 forbids most control characters
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,180 @@
+package com.civicconnect.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Paced SMS sending. Every sender number has a token bucket sized to the carrier/Twilio limit,
+// at most max-concurrency requests are in flight, and throttle responses are retried with backoff.
+@Service
+public class SmsDispatcher {
+
+    @Autowired
+    private SmsProvider provider;
+
+    // Twilio long codes accept about 1 message/second per number; toll-free and short codes allow more
+    @Value("${civic.sms.messages-per-second-per-sender:1.0}")
+    private double messagesPerSecond;
+
+    @Value("${civic.sms.burst:1}")
+    private int burst;
+
+    @Value("${civic.sms.max-concurrency:20}")
+    private int maxConcurrency;
+
+    @Value("${civic.sms.max-throttle-retries:5}")
+    private int maxThrottleRetries;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<TokenBucket> buckets = new ArrayList<>();
+    private Semaphore inFlight;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong throttleRetries = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        inFlight = new Semaphore(maxConcurrency);
+        for (String number : provider.getSenderNumbers()) {
+            buckets.add(new TokenBucket(number, messagesPerSecond, Math.max(1, burst)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return provider.isEnabled() && !buckets.isEmpty();
+    }
+
+    public CompletableFuture<Void> send(String toE164, String body) {
+        return CompletableFuture.runAsync(() -> sendBlocking(toE164, body), executor);
+    }
+
+    // Waits for a send slot and a token, then sends; callers on worker threads use this for natural backpressure
+    public void sendBlocking(String toE164, String body) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("SMS provider " + provider.getName() + " is not configured");
+        }
+        int attempt = 0;
+        while (true) {
+            TokenBucket bucket = pickBucket();
+            sleepNanos(bucket.reserve());
+            try {
+                inFlight.acquire();
+                try {
+                    provider.send(bucket.sender, toE164, body);
+                } finally {
+                    inFlight.release();
+                }
+                sent.incrementAndGet();
+                return;
+            } catch (SmsThrottledException e) {
+                throttleRetries.incrementAndGet();
+                bucket.pause(e.getRetryAfterMillis() << Math.min(attempt, 6));
+                if (++attempt > maxThrottleRetries) {
+                    failed.incrementAndGet();
+                    throw e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.incrementAndGet();
+                throw new IllegalStateException("Interrupted while sending SMS");
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("provider", provider.getName());
+        stats.put("enabled", isEnabled());
+        stats.put("senders", buckets.size());
+        stats.put("sent", sent.get());
+        stats.put("failed", failed.get());
+        stats.put("throttleRetries", throttleRetries.get());
+        stats.put("inFlight", maxConcurrency - inFlight.availablePermits());
+        return stats;
+    }
+
+    // The sender that can send soonest
+    private TokenBucket pickBucket() {
+        TokenBucket best = buckets.get(0);
+        long bestWait = best.peekWaitNanos();
+        for (int i = 1; i < buckets.size() && bestWait > 0; i++) {
+            long wait = buckets.get(i).peekWaitNanos();
+            if (wait < bestWait) {
+                best = buckets.get(i);
+                bestWait = wait;
+            }
+        }
+        return best;
+    }
+
+    private void sleepNanos(long nanos) {
+        if (nanos <= 0) return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Reservation-style token bucket: a caller takes a token immediately and is told how long to wait
+    // for it, so concurrent callers queue up in order without spinning.
+    private static class TokenBucket {
+        private final String sender;
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(String sender, double perSecond, double capacity) {
+            this.sender = sender;
+            this.tokensPerNano = perSecond / 1_000_000_000.0;
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        synchronized long reserve() {
+            refill();
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) (-tokens / tokensPerNano);
+        }
+
+        synchronized long peekWaitNanos() {
+            refill();
+            return tokens >= 1 ? 0 : (long) ((1 - tokens) / tokensPerNano);
+        }
+
+        // Upstream said "slow down": push this sender's next token out by the given delay
+        synchronized void pause(long millis) {
+            refill();
+            tokens = Math.min(tokens, 0) - millis * 1_000_000L * tokensPerNano;
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.civicconnect.backend.service;
+
+import java.util.List;
+
+// Transport behind SmsDispatcher. Implementations send exactly one message and throw
+// SmsThrottledException when the upstream asks us to slow down, so the dispatcher can retry.
+public interface SmsProvider {
+
+    String getName();
+
+    boolean isEnabled();
+
+    // Sender numbers (E.164) this provider may send from; each gets its own rate limit
+    List<String> getSenderNumbers();
+
+    void send(String from, String toE164, String body);
+}
@@ -0,0 +1,15 @@
+package com.civicconnect.backend.service;
+
+public class SmsThrottledException extends RuntimeException {
+
+    private final long retryAfterMillis;
+
+    public SmsThrottledException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
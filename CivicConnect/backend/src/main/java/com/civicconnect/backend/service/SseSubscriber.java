@@ -0,0 +1,106 @@
+package com.civicconnect.backend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// One SSE client's pending events, written in order by at most one drain task at a time. Publishers
+// only enqueue, so a slow client delays itself and never the publisher or other clients. A client
+// that falls more than maxPending events behind is dropped (EventSource reconnects on its own).
+class SseSubscriber {
+    private final SseEmitter emitter;
+    private final Executor executor;
+    private final int maxPending;
+    private final Consumer<SseSubscriber> onClose;
+    private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean completeWhenDrained;
+    private volatile boolean closed;
+
+    SseSubscriber(SseEmitter emitter, Executor executor, int maxPending, Consumer<SseSubscriber> onClose) {
+        this.emitter = emitter;
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.onClose = onClose;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void send(SseEmitter.SseEventBuilder event) {
+        enqueue(event, false);
+    }
+
+    // Completes the emitter once this (and everything queued before it) has been written
+    void sendAndComplete(SseEmitter.SseEventBuilder event) {
+        enqueue(event, true);
+    }
+
+    // The emitter completed or timed out on its own; pending events are dropped
+    void close() {
+        closed = true;
+    }
+
+    private void enqueue(SseEmitter.SseEventBuilder event, boolean last) {
+        if (closed) return;
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            fail(new IllegalStateException("SSE client fell " + maxPending + " events behind"));
+            return;
+        }
+        pending.add(event);
+        if (last) completeWhenDrained = true; // set after the add so a drain cannot complete early
+        schedule();
+    }
+
+    private void schedule() {
+        if (!draining.compareAndSet(false, true)) return;
+        try {
+            executor.execute(this::drain);
+        } catch (Exception e) {
+            draining.set(false); // executor shut down
+        }
+    }
+
+    private void drain() {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!closed && (event = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    fail(e);
+                }
+            }
+            if (!closed && completeWhenDrained && pending.isEmpty()) {
+                closed = true;
+                onClose.accept(this);
+                emitter.complete();
+            }
+        } finally {
+            draining.set(false);
+        }
+        // Events (or the final flag) that arrived while this task was finishing
+        if (!closed && (!pending.isEmpty() || completeWhenDrained)) schedule();
+    }
+
+    private void fail(Exception e) {
+        if (closed) return;
+        closed = true;
+        onClose.accept(this);
+        emitter.completeWithError(e);
+    }
+}
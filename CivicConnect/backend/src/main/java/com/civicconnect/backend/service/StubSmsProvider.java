@@ -0,0 +1,61 @@
+package com.civicconnect.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Offline provider for load testing the dispatcher: simulates network latency and
+// occasional throttling without sending anything. Enable with civic.sms.provider=stub
+@Component
+@ConditionalOnProperty(name = "civic.sms.provider", havingValue = "stub")
+public class StubSmsProvider implements SmsProvider {
+
+    @Value("${civic.sms.stub.latency-ms:150}")
+    private long latencyMs;
+
+    // Fraction of sends answered with a simulated 429 (0.0 - 1.0)
+    @Value("${civic.sms.stub.throttle-rate:0.0}")
+    private double throttleRate;
+
+    @Value("${civic.sms.stub.sender-numbers:+15005550006}")
+    private List<String> senderNumbers;
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public List<String> getSenderNumbers() {
+        return senderNumbers;
+    }
+
+    @Override
+    public void send(String from, String toE164, String body) {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted");
+        }
+        if (throttleRate > 0 && ThreadLocalRandom.current().nextDouble() < throttleRate) {
+            throw new SmsThrottledException("Stub throttle", 500);
+        }
+        delivered.incrementAndGet();
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+}
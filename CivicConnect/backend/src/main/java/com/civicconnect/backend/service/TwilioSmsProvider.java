@@ -0,0 +1,78 @@
+package com.civicconnect.backend.service;
+
+import com.twilio.Twilio;
+import com.twilio.exception.ApiException;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "civic.sms.provider", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsProvider implements SmsProvider {
+
+    @Value("${twilio.account-sid}")
+    private String twilioSid;
+
+    @Value("${twilio.auth-token}")
+    private String twilioToken;
+
+    // One number, or several comma separated to spread load across senders
+    @Value("${twilio.phone-number}")
+    private String twilioPhoneNumbers;
+
+    private boolean enabled = false;
+
+    @PostConstruct
+    public void initTwilio() {
+        try {
+            if (twilioSid != null && !twilioSid.startsWith("ACXXX")) {
+                Twilio.init(twilioSid, twilioToken);
+                enabled = true;
+                System.out.println("✅ Twilio Initialized");
+            } else {
+                System.out.println("⚠️ Twilio credentials not configured. SMS will be skipped.");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Twilio Init Failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "twilio";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public List<String> getSenderNumbers() {
+        return Arrays.stream(twilioPhoneNumbers.split(","))
+                .map(String::trim)
+                .filter(n -> !n.isEmpty())
+                .toList();
+    }
+
+    @Override
+    public void send(String from, String toE164, String body) {
+        try {
+            Message.creator(new PhoneNumber(toE164), new PhoneNumber(from), body).create();
+        } catch (ApiException e) {
+            // 429 / error 20429: Twilio queue for this number is full, back off and retry
+            boolean throttled = (e.getStatusCode() != null && e.getStatusCode() == 429)
+                    || (e.getCode() != null && e.getCode() == 20429);
+            if (throttled) {
+                throw new SmsThrottledException(e.getMessage(), 1000);
+            }
+            throw e;
+        }
+    }
+}
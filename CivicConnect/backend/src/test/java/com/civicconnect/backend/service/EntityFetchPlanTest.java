@@ -0,0 +1,156 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.EventResponseDto;
+import com.civicconnect.backend.model.Event;
+import com.civicconnect.backend.model.EventCategory;
+import com.civicconnect.backend.model.EventRegistration;
+import com.civicconnect.backend.model.User;
+import com.civicconnect.backend.repository.EventRegistrationRepository;
+import com.civicconnect.backend.repository.EventRepository;
+import com.civicconnect.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Guards the fetch plans now that Event/EventRegistration associations are lazy: each use case
+// loads exactly the entities it shows. With the old EAGER mappings every registration query also
+// pulled its event, that event's creator and the user row, whether the caller needed them or not.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class EntityFetchPlanTest {
+
+    private static final int EVENT_COUNT = 30;
+    private static final int ROSTER_SIZE = 25;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long volunteerId;
+    private Long rosterEventId;
+
+    @BeforeEach
+    void setUp() {
+        User admin = userRepository.save(TestFixtures.user("fp-admin", "Admin"));
+        User volunteer = userRepository.save(TestFixtures.user("fp-volunteer", "Citizen"));
+        volunteerId = volunteer.getId();
+
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            Event event = TestFixtures.event("Fetch plan " + i, "Fetch plan fixture", admin,
+                    LocalDateTime.now().plusDays(1 + i), EventCategory.values()[i % EventCategory.values().length]);
+            event.setVenue("Ward " + (i % 5));
+            events.add(eventRepository.save(event));
+
+            EventRegistration registration = new EventRegistration();
+            registration.setEvent(events.get(i));
+            registration.setUser(volunteer);
+            eventRegistrationRepository.save(registration);
+        }
+
+        rosterEventId = events.get(0).getId();
+        for (int i = 0; i < ROSTER_SIZE; i++) {
+            EventRegistration registration = new EventRegistration();
+            registration.setEvent(events.get(0));
+            registration.setUser(userRepository.save(TestFixtures.user("fp-roster-" + i, "Citizen")));
+            eventRegistrationRepository.save(registration);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void participationHistoryLoadsEventsAndCreatorOnly() {
+        User volunteer = userRepository.findById(volunteerId).orElseThrow();
+        statistics.clear();
+
+        List<EventResponseDto> history = eventService.getUserParticipationHistory(volunteer);
+
+        assertEquals(EVENT_COUNT, history.size());
+        assertEquals(EVENT_COUNT, loads(EventRegistration.class));
+        assertEquals(EVENT_COUNT, loads(Event.class));
+        assertEquals(1, loads(User.class), "only the shared creator should be loaded");
+        // history + creator (join fetch), registration counts, the volunteer's statuses
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Expected at most 3 statements, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void rosterLoadsVolunteersButNotTheCreator() {
+        statistics.clear();
+
+        List<Map<String, String>> volunteers = eventService.getEventVolunteers(rosterEventId);
+
+        assertEquals(ROSTER_SIZE + 1, volunteers.size());
+        assertEquals(1, loads(Event.class));
+        assertEquals(ROSTER_SIZE + 1, loads(EventRegistration.class));
+        assertEquals(ROSTER_SIZE + 1, loads(User.class), "creator must not be loaded for the roster");
+        // event, registrations + users (entity graph)
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listingLoadsNoRegistrationEntities() {
+        User volunteer = userRepository.findById(volunteerId).orElseThrow();
+        statistics.clear();
+
+        List<EventResponseDto> upcoming = eventService.getUpcomingEvents(volunteer);
+
+        assertTrue(upcoming.size() >= EVENT_COUNT);
+        assertEquals(0, loads(EventRegistration.class), "counts and statuses are projections");
+        assertEquals(upcoming.stream().map(EventResponseDto::getCreatorId).distinct().count(), loads(User.class),
+                "only creators should be loaded");
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Expected at most 3 statements, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void eventDetailFetchesCreatorWithTheEvent() {
+        User volunteer = userRepository.findById(volunteerId).orElseThrow();
+        statistics.clear();
+
+        EventResponseDto dto = eventService.getEventById(rosterEventId, volunteer);
+
+        assertEquals("fp-admin", dto.getCreatorName());
+        assertEquals(1, loads(Event.class));
+        assertEquals(1, loads(User.class));
+        assertEquals(0, loads(EventRegistration.class));
+        // event + creator (entity graph), registration count, the volunteer's status
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private long loads(Class<?> entity) {
+        return statistics.getEntityStatistics(entity.getName()).getLoadCount();
+    }
+}
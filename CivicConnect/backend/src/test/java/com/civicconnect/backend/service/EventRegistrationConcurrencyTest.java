@@ -0,0 +1,260 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.AttendanceScanDto;
+import com.civicconnect.backend.dto.RegistrationResultDto;
+import com.civicconnect.backend.model.Event;
+import com.civicconnect.backend.model.EventCategory;
+import com.civicconnect.backend.model.EventRegistration;
+import com.civicconnect.backend.model.User;
+import com.civicconnect.backend.repository.EventRegistrationRepository;
+import com.civicconnect.backend.repository.EventRepository;
+import com.civicconnect.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Hammers one event with concurrent sign-ups and checks capacity is never overshot; the overflow is
+// waitlisted, and slots freed by cancellations go to the waitlist strictly in FIFO order
+@SpringBootTest
+class EventRegistrationConcurrencyTest {
+
+    private static final int CAPACITY = 50;
+    private static final int VOLUNTEERS = 300;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CheckInService checkInService;
+
+    @Test
+    void concurrentRegistrationsNeverExceedCapacity() throws Exception {
+        Long eventId = newEvent("stress-admin", CAPACITY);
+
+        List<User> volunteers = new ArrayList<>();
+        for (int i = 0; i < VOLUNTEERS; i++) {
+            volunteers.add(userRepository.save(TestFixtures.user("stress-volunteer-" + i, "Citizen")));
+        }
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger waitlisted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        List<Future<?>> futures = new ArrayList<>();
+        for (User volunteer : volunteers) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                RegistrationResultDto result = eventService.registerVolunteer(eventId, volunteer);
+                if ("REGISTERED".equals(result.getStatus())) accepted.incrementAndGet();
+                else waitlisted.incrementAndGet();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        Event reloaded = eventRepository.findById(eventId).orElseThrow();
+        assertEquals(CAPACITY, accepted.get());
+        assertEquals(VOLUNTEERS - CAPACITY, waitlisted.get());
+        assertEquals(CAPACITY, reloaded.getRegisteredCount());
+        assertEquals(CAPACITY, eventRegistrationRepository.countByEventAndStatus(reloaded, "REGISTERED"));
+
+        // A cancellation hands its slot to the head of the waitlist
+        User registered = eventRegistrationRepository.findByEventAndStatus(reloaded, "REGISTERED").get(0).getUser();
+        eventService.unregisterVolunteer(eventId, registered);
+        reloaded = eventRepository.findById(eventId).orElseThrow();
+        assertEquals(CAPACITY, reloaded.getRegisteredCount());
+        assertEquals(CAPACITY, eventRegistrationRepository.countByEventAndStatus(reloaded, "REGISTERED"));
+        assertEquals(VOLUNTEERS - CAPACITY - 1, eventRegistrationRepository.countByEventAndStatus(reloaded, "WAITLISTED"));
+    }
+
+    // Cancellations racing with new sign-ups: every freed slot goes to the oldest waiter, in order.
+    // New sign-ups find the event full, join the back of the queue and run promoteFromWaitlist
+    // themselves, which must not let them (or anyone behind the head) jump ahead.
+    @Test
+    void concurrentCancellationsPromoteWaitlistInOrder() throws Exception {
+        int capacity = 10;
+        int waiting = 20;
+        int cancelling = 5;
+        int latecomers = 10;
+        Long eventId = newEvent("promo-admin", capacity);
+
+        List<User> registered = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            User user = userRepository.save(TestFixtures.user("promo-registered-" + i, "Citizen"));
+            assertEquals("REGISTERED", eventService.registerVolunteer(eventId, user).getStatus());
+            registered.add(user);
+        }
+        List<User> waiters = new ArrayList<>();
+        for (int i = 0; i < waiting; i++) {
+            User user = userRepository.save(TestFixtures.user("promo-waiter-" + i, "Citizen"));
+            RegistrationResultDto result = eventService.registerVolunteer(eventId, user);
+            assertEquals("WAITLISTED", result.getStatus());
+            assertEquals(i + 1, result.getWaitlistPosition());
+            waiters.add(user);
+        }
+        List<User> late = new ArrayList<>();
+        for (int i = 0; i < latecomers; i++) {
+            late.add(userRepository.save(TestFixtures.user("promo-late-" + i, "Citizen")));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < cancelling; i++) {
+            User user = registered.get(i);
+            futures.add(pool.submit(() -> {
+                start.await();
+                eventService.unregisterVolunteer(eventId, user);
+                return null;
+            }));
+        }
+        List<Future<RegistrationResultDto>> lateResults = new ArrayList<>();
+        for (User user : late) {
+            lateResults.add(pool.submit(() -> {
+                start.await();
+                return eventService.registerVolunteer(eventId, user);
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        for (Future<RegistrationResultDto> result : lateResults) {
+            assertEquals("WAITLISTED", result.get(60, TimeUnit.SECONDS).getStatus(),
+                    "a latecomer must not take a slot while earlier volunteers wait");
+        }
+        pool.shutdown();
+
+        Event reloaded = eventRepository.findById(eventId).orElseThrow();
+        assertEquals(capacity, reloaded.getRegisteredCount());
+        assertEquals(capacity, eventRegistrationRepository.countByEventAndStatus(reloaded, "REGISTERED"));
+        for (int i = 0; i < waiting; i++) {
+            String expected = i < cancelling ? "REGISTERED" : "WAITLISTED";
+            assertEquals(expected, statusOf(reloaded, waiters.get(i)), "waiter " + i);
+        }
+
+        // The remaining queue still starts with the original waiters, ahead of every latecomer
+        List<EventRegistration> head = eventRegistrationRepository.findWaitlistHead(eventId,
+                PageRequest.of(0, waiting + latecomers));
+        assertEquals(waiting - cancelling + latecomers, head.size());
+        for (int i = 0; i < waiting - cancelling; i++) {
+            assertEquals(waiters.get(cancelling + i).getId(), head.get(i).getUser().getId(), "queue position " + i);
+        }
+        assertTrue(head.subList(waiting - cancelling, head.size()).stream()
+                .allMatch(r -> r.getUser().getUsername().startsWith("promo-late-")));
+    }
+
+    // One user re-registering after a cancellation from several tabs at once: the cancelled row is
+    // reused, so only the row lock stops every request from reserving a slot for it
+    @Test
+    void concurrentReRegistrationsReserveOneSlot() throws Exception {
+        int attempts = 8;
+        Long eventId = newEvent("rereg-admin", 5);
+        User user = userRepository.save(TestFixtures.user("rereg-volunteer", "Citizen"));
+        eventService.registerVolunteer(eventId, user);
+        eventService.unregisterVolunteer(eventId, user);
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(attempts);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    if ("REGISTERED".equals(eventService.registerVolunteer(eventId, user).getStatus())) {
+                        accepted.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        Event reloaded = eventRepository.findById(eventId).orElseThrow();
+        assertEquals(1, accepted.get());
+        assertEquals(attempts - 1, rejected.get());
+        assertEquals(1, reloaded.getRegisteredCount());
+        assertEquals("REGISTERED", statusOf(reloaded, user));
+    }
+
+    // A checked-in volunteer still holds their slot: they stay on the roster and in the counts, and
+    // can neither register a second time nor cancel and hand the slot to the waitlist
+    @Test
+    void checkedInVolunteerKeepsSlot() {
+        Long eventId = newEvent("checkin-admin", 2);
+        User attendee = userRepository.save(TestFixtures.user("checkin-attendee", "Citizen"));
+        User other = userRepository.save(TestFixtures.user("checkin-other", "Citizen"));
+        User waiter = userRepository.save(TestFixtures.user("checkin-waiter", "Citizen"));
+        eventService.registerVolunteer(eventId, attendee);
+        eventService.registerVolunteer(eventId, other);
+        assertEquals("WAITLISTED", eventService.registerVolunteer(eventId, waiter).getStatus());
+
+        AttendanceScanDto scan = new AttendanceScanDto();
+        scan.setToken(checkInService.issueToken(eventService.getActiveRegistration(eventId, attendee)));
+        assertEquals(1, checkInService.markAttendance(eventId, List.of(scan)).get("checkedIn"));
+
+        assertThrows(RuntimeException.class, () -> eventService.registerVolunteer(eventId, attendee));
+        Event reloaded = eventRepository.findById(eventId).orElseThrow();
+        assertEquals(2, reloaded.getRegisteredCount());
+        assertEquals("ATTENDED", statusOf(reloaded, attendee));
+        assertTrue(eventService.getEventById(eventId, attendee).isUserRegistered());
+        assertEquals(2, eventService.getEventById(eventId, null).getRegistrationCount());
+        assertTrue(eventService.getEventVolunteers(eventId).stream()
+                .map(row -> row.get("username")).toList().contains("checkin-attendee"));
+        assertEquals("WAITLISTED", statusOf(reloaded, waiter));
+
+        assertThrows(RuntimeException.class, () -> eventService.unregisterVolunteer(eventId, attendee));
+        reloaded = eventRepository.findById(eventId).orElseThrow();
+        assertEquals(2, reloaded.getRegisteredCount());
+        assertEquals("ATTENDED", statusOf(reloaded, attendee));
+        assertEquals("WAITLISTED", statusOf(reloaded, waiter));
+    }
+
+    private String statusOf(Event event, User user) {
+        return eventRegistrationRepository.findByEventAndUser(event, user).orElseThrow().getStatus();
+    }
+
+    private Long newEvent(String adminName, int capacity) {
+        User admin = userRepository.save(TestFixtures.user(adminName, "Admin"));
+        Event event = TestFixtures.event("Blood donation drive", "Concurrency fixture", admin,
+                LocalDateTime.now().plusDays(7), EventCategory.BLOOD_DONATION);
+        event.setMaxVolunteers(capacity);
+        return eventRepository.save(event).getId();
+    }
+}
@@ -0,0 +1,91 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.dto.EventResponseDto;
+import com.civicconnect.backend.model.Event;
+import com.civicconnect.backend.model.EventCategory;
+import com.civicconnect.backend.model.EventRegistration;
+import com.civicconnect.backend.model.User;
+import com.civicconnect.backend.repository.EventRegistrationRepository;
+import com.civicconnect.backend.repository.EventRepository;
+import com.civicconnect.backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Guards the batched event listing: the number of SQL statements must not grow with the number of events
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class EventServiceQueryCountTest {
+
+    private static final int EVENT_COUNT = 200;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void upcomingEventsUseConstantNumberOfQueries() {
+        User admin = userRepository.save(TestFixtures.user("qc-admin", "Admin"));
+        User volunteer = userRepository.save(TestFixtures.user("qc-volunteer", "Citizen"));
+
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            Event event = TestFixtures.event("Drive " + i, "Query count fixture", admin,
+                    LocalDateTime.now().plusDays(1 + i), EventCategory.values()[i % EventCategory.values().length]);
+            event.setVenue("Ward " + (i % 10));
+            event.setMaxVolunteers(50);
+            event = eventRepository.save(event);
+
+            if (i % 3 == 0) {
+                EventRegistration registration = new EventRegistration();
+                registration.setEvent(event);
+                registration.setUser(volunteer);
+                registration.setStatus("REGISTERED");
+                eventRegistrationRepository.save(registration);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<EventResponseDto> events = eventService.getUpcomingEvents(volunteer);
+
+        // events + creators (join fetch), registration counts (GROUP BY), current user's registrations (IN)
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Expected at most 3 statements, got " + statistics.getPrepareStatementCount());
+
+        List<EventResponseDto> fixtures = events.stream()
+                .filter(dto -> "Query count fixture".equals(dto.getDescription()))
+                .toList();
+        assertEquals(EVENT_COUNT, fixtures.size());
+        assertEquals(EVENT_COUNT / 3 + 1, fixtures.stream().filter(EventResponseDto::isUserRegistered).count());
+        fixtures.stream().filter(EventResponseDto::isUserRegistered)
+                .forEach(dto -> assertEquals(1, dto.getRegistrationCount()));
+    }
+}
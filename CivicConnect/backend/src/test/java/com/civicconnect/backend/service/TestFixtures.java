@@ -0,0 +1,36 @@
+package com.civicconnect.backend.service;
+
+import com.civicconnect.backend.model.Event;
+import com.civicconnect.backend.model.EventCategory;
+import com.civicconnect.backend.model.User;
+
+import java.time.LocalDateTime;
+
+// Unsaved entities for the service tests; callers save them and override whatever the test is about
+final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    static User user(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        user.setMobileNumber("9000000000");
+        user.setRole(role);
+        return user;
+    }
+
+    static Event event(String title, String description, User createdBy, LocalDateTime eventDate, EventCategory category) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setDescription(description);
+        event.setVenue("City Hall");
+        event.setEventDate(eventDate);
+        event.setCategory(category);
+        event.setCreatedBy(createdBy);
+        event.setStatus("UPCOMING");
+        return event;
+    }
+}